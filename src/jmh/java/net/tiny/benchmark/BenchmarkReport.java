@@ -0,0 +1,79 @@
+package net.tiny.benchmark;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.tiny.config.JsonParser;
+
+/**
+ * Compare a JMH json result with the baseline result.
+ * <p>
+ * Usage: java net.tiny.benchmark.BenchmarkReport baseline.json result.json [threshold%]
+ * </p>
+ * The benchmarks slower than the threshold (default 10%) are reported as regression,
+ * exit code is 1 if any regression was found.
+ */
+public class BenchmarkReport {
+
+    static final double DEFAULT_THRESHOLD = 10d;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkReport baseline.json result.json [threshold%]");
+            System.exit(2);
+        }
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        final Map<String, Double> baseline = load(args[0]);
+        final Map<String, Double> result = load(args[1]);
+        final int regressions = report(baseline, result, threshold, System.out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    static int report(Map<String, Double> baseline, Map<String, Double> result, double threshold, PrintStream out) {
+        int regressions = 0;
+        out.println(String.format("%-72s %14s %14s %9s", "Benchmark", "Baseline", "Score", "Delta"));
+        for (Map.Entry<String, Double> entry : result.entrySet()) {
+            final Double base = baseline.get(entry.getKey());
+            if (base == null) {
+                out.println(String.format("%-72s %14s %14.3f %9s", entry.getKey(), "-", entry.getValue(), "new"));
+                continue;
+            }
+            // Scores are average time, a larger score is slower.
+            final double delta = (entry.getValue() - base) / base * 100d;
+            final boolean regression = delta > threshold;
+            if (regression) {
+                regressions++;
+            }
+            out.println(String.format("%-72s %14.3f %14.3f %+8.1f%%%s", entry.getKey(), base, entry.getValue(), delta,
+                    regression ? " REGRESSION" : ""));
+        }
+        return regressions;
+    }
+
+    /**
+     * Load the scores of a JMH json result, the key is the benchmark name with its parameters.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Double> load(String file) throws IOException {
+        final Map<String, Double> scores = new LinkedHashMap<>();
+        try (Reader reader = new FileReader(file)) {
+            final List<Object> results = JsonParser.unmarshal(reader, List.class);
+            for (Object r : results) {
+                final Map<String, Object> result = (Map<String, Object>) r;
+                final StringBuilder name = new StringBuilder(result.get("benchmark").toString());
+                final Object params = result.get("params");
+                if (params instanceof Map) {
+                    ((Map<String, Object>) params).forEach((k, v) -> name.append(':').append(k).append('=').append(v));
+                }
+                final Map<String, Object> metric = (Map<String, Object>) result.get("primaryMetric");
+                scores.put(name.toString(), ((Number) metric.get("score")).doubleValue());
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,98 @@
+package net.tiny.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.config.Configuration;
+
+/**
+ * Bean wiring by {@link Configuration}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationBenchmark {
+
+    public static class Sample {
+        private String name;
+        private int count;
+        private long size;
+        private boolean enable;
+        private BigDecimal rate;
+        private LocalDate date;
+        private List<String> list;
+        private String url;
+    }
+
+    private Configuration configuration;
+    private Configuration sample;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Properties properties = new Properties();
+        properties.setProperty("app.host", "localhost");
+        properties.setProperty("app.port", "8080");
+        properties.setProperty("sample.class", Sample.class.getName());
+        properties.setProperty("sample.name", "sample");
+        properties.setProperty("sample.count", "100");
+        properties.setProperty("sample.size", "1234567890");
+        properties.setProperty("sample.enable", "true");
+        properties.setProperty("sample.rate", "1.4");
+        properties.setProperty("sample.date", "2016/09/16");
+        properties.setProperty("sample.list", "a, b, c");
+        properties.setProperty("sample.url", "http://${app.host}:${app.port}/api");
+        configuration = new Configuration(properties, null);
+        sample = configuration.getConfiguration("sample");
+    }
+
+    @Benchmark
+    public Object wire() {
+        return configuration.reweave(Sample.class, new Sample(), sample);
+    }
+
+    @Benchmark
+    public Sample cached() {
+        return configuration.getAs("sample", Sample.class);
+    }
+
+    @Benchmark
+    public String reference() {
+        return configuration.getString("sample.url");
+    }
+
+    @Benchmark
+    public Integer integer() {
+        return configuration.getInteger("sample.count");
+    }
+
+    @Benchmark
+    public Date date() {
+        return configuration.getDate("sample.date");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String contended() {
+        return configuration.getString("sample.name");
+    }
+}
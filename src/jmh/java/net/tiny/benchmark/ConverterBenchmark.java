@@ -0,0 +1,112 @@
+package net.tiny.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.config.Converter;
+
+/**
+ * {@link Converter#convert(String, Class)} of the registered types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"int", "long", "double", "boolean", "BigDecimal", "Date", "LocalDate", "LocalTime", "LocalDateTime", "Timestamp", "int[]", "String[]", "hosts"})
+    public String type;
+
+    private final Converter converter = new Converter();
+    private Class<?> classType;
+    private String value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (type) {
+        case "int":
+            classType = Integer.class;
+            value = "12345";
+            break;
+        case "long":
+            classType = Long.class;
+            value = "1234567890123";
+            break;
+        case "double":
+            classType = Double.class;
+            value = "1234.5678";
+            break;
+        case "boolean":
+            classType = Boolean.class;
+            value = "true";
+            break;
+        case "BigDecimal":
+            classType = BigDecimal.class;
+            value = "1234.5678";
+            break;
+        case "Date":
+            classType = Date.class;
+            value = "2016/09/16";
+            break;
+        case "LocalDate":
+            classType = LocalDate.class;
+            value = "2016/09/16";
+            break;
+        case "LocalTime":
+            classType = LocalTime.class;
+            value = "09:15:45";
+            break;
+        case "LocalDateTime":
+            classType = LocalDateTime.class;
+            value = "2016/09/16 09:15:45";
+            break;
+        case "Timestamp":
+            classType = java.sql.Timestamp.class;
+            value = "2019-03-14T02:20:28.941Z";
+            break;
+        case "int[]":
+            classType = int[].class;
+            value = "[1, 2, 3, 4, 5, 6, 7, 8]";
+            break;
+        case "String[]":
+            classType = String[].class;
+            value = "[\"a\", \"b\", \"c\", \"d\"]";
+            break;
+        case "hosts":
+            classType = List.class;
+            final StringBuilder hosts = new StringBuilder("[");
+            for (int i = 0; i < 1000; i++) {
+                hosts.append(i == 0 ? "" : ", ").append("host-").append(i).append(".example.com:8080");
+            }
+            value = hosts.append(']').toString();
+            break;
+        default:
+            throw new IllegalArgumentException(type);
+        }
+    }
+
+    @Benchmark
+    public Object convert() {
+        return converter.convert(value, classType);
+    }
+}
@@ -0,0 +1,54 @@
+package net.tiny.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.logging.JsonFormatter;
+import net.tiny.logging.RecordFormatter;
+
+/**
+ * A log record formatted by the threads sharing a formatter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FormatterBenchmark {
+
+    @Param({"record", "json"})
+    public String type;
+
+    private Formatter formatter;
+
+    @Setup
+    public void setup() {
+        formatter = "json".equals(type) ? new JsonFormatter() : new RecordFormatter();
+    }
+
+    @Benchmark
+    public String format() {
+        final LogRecord record = new LogRecord(Level.INFO, "Benchmark message {0}");
+        record.setSourceClassName("net.tiny.benchmark.configuration.FormatterBenchmark");
+        record.setSourceMethodName("format");
+        record.setParameters(new Object[] {"value"});
+        return formatter.format(record);
+    }
+}
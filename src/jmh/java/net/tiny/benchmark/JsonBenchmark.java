@@ -0,0 +1,86 @@
+package net.tiny.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.config.JsonParser;
+
+/**
+ * {@link JsonParser} marshal and unmarshal over small and large payloads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    public static class Item {
+        private long id;
+        private String name;
+        private double price;
+        private boolean stock;
+        private List<String> tags;
+    }
+
+    @Param({"1", "10000"})
+    public int items;
+
+    private List<Item> list;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item" + i;
+            item.price = i * 1.5d;
+            item.stock = (i % 2 == 0);
+            item.tags = Arrays.asList("a", "b", "c");
+            list.add(item);
+        }
+        json = JsonParser.marshal(list);
+    }
+
+    @Benchmark
+    public String marshal() {
+        return JsonParser.marshal(list);
+    }
+
+    @Benchmark
+    public StringBuilder marshalAppendable() throws IOException {
+        final StringBuilder out = new StringBuilder(json.length());
+        JsonParser.marshal(list, out, true);
+        return out;
+    }
+
+    @Benchmark
+    public List<Item> unmarshal() {
+        return JsonParser.unmarshals(json, Item.class);
+    }
+
+    @Benchmark
+    public long stream() {
+        return JsonParser.stream(new StringReader(json), Item.class).count();
+    }
+}
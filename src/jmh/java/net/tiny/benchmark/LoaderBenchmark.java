@@ -0,0 +1,93 @@
+package net.tiny.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.config.ContextHandler;
+import net.tiny.config.HoconLoader;
+import net.tiny.config.JsonLoader;
+import net.tiny.config.PropertiesLoader;
+import net.tiny.config.PropertiesSupport;
+import net.tiny.config.YamlLoader;
+
+/**
+ * Parsing the synthetic configurations by each loader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+
+    private static final PropertiesSupport.Listener LISTENER = (method, key, value) -> {};
+
+    @Param({"100", "10000", "100000"})
+    public int keys;
+
+    private String properties;
+    private String json;
+    private String yaml;
+    private String hocon;
+    private Path yamlFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        properties = SyntheticConfig.properties(keys);
+        json = SyntheticConfig.json(keys);
+        yaml = SyntheticConfig.yaml(keys);
+        hocon = SyntheticConfig.hocon(keys);
+        yamlFile = Files.createTempFile("benchmark", ".yml");
+        Files.write(yamlFile, yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(yamlFile);
+    }
+
+    @Benchmark
+    public Properties properties() throws IOException {
+        return PropertiesLoader.load(new StringReader(properties), LISTENER);
+    }
+
+    @Benchmark
+    public Properties json() throws IOException {
+        return JsonLoader.load(new StringReader(json), LISTENER);
+    }
+
+    @Benchmark
+    public Properties yaml() throws IOException {
+        return YamlLoader.load(new StringReader(yaml), LISTENER);
+    }
+
+    @Benchmark
+    public Properties yamlMapped() {
+        return PropertiesLoader.load(yamlFile, ContextHandler.Type.YAML, LISTENER);
+    }
+
+    @Benchmark
+    public Properties hocon() throws IOException {
+        return HoconLoader.load(new StringReader(hocon), LISTENER);
+    }
+}
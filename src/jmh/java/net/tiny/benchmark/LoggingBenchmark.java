@@ -0,0 +1,109 @@
+package net.tiny.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.tiny.logging.AsyncHandler;
+import net.tiny.logging.MappedFileHandler;
+import net.tiny.logging.RecordFormatter;
+
+/**
+ * Log records published by the contended threads into a file.
+ * 'sync' is the same as LevelableHandler, which flushes every record under the handler lock.
+ * 'async-drop' is the cost of the logging threads only, the records are dropped while the buffer is full.
+ * 'file' is the java FileHandler, 'mapped' is MappedFileHandler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "async-drop", "file", "mapped"})
+    public String handler;
+
+    private File file;
+    private OutputStream stream;
+    private Handler target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("logging", ".log");
+        stream = new FileOutputStream(file);
+        switch (handler) {
+        case "sync":
+            target = new StreamHandler(stream, new RecordFormatter()) {
+                @Override
+                public synchronized void publish(LogRecord record) {
+                    super.publish(record);
+                    super.flush();
+                }
+            };
+            break;
+        case "async":
+        case "async-drop":
+            final Properties properties = new Properties();
+            properties.setProperty("overflow", handler.equals("async") ? "block" : "drop");
+            target = new AsyncHandler(properties, stream, stream);
+            break;
+        case "file":
+            target = new FileHandler(file.getPath() + ".file");
+            target.setFormatter(new RecordFormatter());
+            break;
+        case "mapped":
+            final Properties mapped = new Properties();
+            mapped.setProperty("pattern", file.getPath() + ".mapped");
+            target = new MappedFileHandler(mapped);
+            break;
+        default:
+            throw new IllegalArgumentException(handler);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        target.close();
+        stream.close();
+        file.delete();
+        new File(file.getPath() + ".file").delete();
+        new File(file.getPath() + ".file.lck").delete();
+        new File(file.getPath() + ".mapped").delete();
+    }
+
+    @Benchmark
+    public void publish() {
+        final LogRecord record = new LogRecord(java.util.logging.Level.INFO, "Benchmark message {0}");
+        record.setLoggerName(LoggingBenchmark.class.getName());
+        // Not inferred from the stack
+        record.setSourceClassName(LoggingBenchmark.class.getName());
+        record.setSourceMethodName("publish");
+        record.setParameters(new Object[] {Thread.currentThread().getId()});
+        target.publish(record);
+    }
+}
@@ -0,0 +1,67 @@
+package net.tiny.benchmark;
+
+/**
+ * Synthetic configuration text of each format, the keys are grouped by 100 under 'app.g{n}'.
+ *
+ */
+final class SyntheticConfig {
+
+    static final int GROUP = 100;
+
+    private SyntheticConfig() {}
+
+    static String properties(int keys) {
+        final StringBuilder sb = new StringBuilder(keys * 32);
+        for (int i = 0; i < keys; i++) {
+            sb.append("app.g").append(i / GROUP).append(".key").append(i)
+              .append(" = value").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static String json(int keys) {
+        final StringBuilder sb = new StringBuilder(keys * 32);
+        sb.append("{\n  \"app\" : {\n");
+        for (int i = 0; i < keys; i++) {
+            if (i % GROUP == 0) {
+                sb.append("    \"g").append(i / GROUP).append("\" : {\n");
+            }
+            sb.append("      \"key").append(i).append("\" : \"value").append(i).append('"');
+            final boolean last = (i % GROUP == GROUP - 1) || (i == keys - 1);
+            sb.append(last ? "\n" : ",\n");
+            if (last) {
+                sb.append("    }").append(i == keys - 1 ? "\n" : ",\n");
+            }
+        }
+        sb.append("  }\n}\n");
+        return sb.toString();
+    }
+
+    static String yaml(int keys) {
+        final StringBuilder sb = new StringBuilder(keys * 32);
+        sb.append("app:\n");
+        for (int i = 0; i < keys; i++) {
+            if (i % GROUP == 0) {
+                sb.append("  g").append(i / GROUP).append(":\n");
+            }
+            sb.append("    key").append(i).append(": value").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static String hocon(int keys) {
+        final StringBuilder sb = new StringBuilder(keys * 32);
+        sb.append("app {\n");
+        for (int i = 0; i < keys; i++) {
+            if (i % GROUP == 0) {
+                sb.append("  g").append(i / GROUP).append(" {\n");
+            }
+            sb.append("    key").append(i).append(" = value").append(i).append('\n');
+            if ((i % GROUP == GROUP - 1) || (i == keys - 1)) {
+                sb.append("  }\n");
+            }
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
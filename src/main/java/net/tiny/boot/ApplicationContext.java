@@ -36,4 +36,9 @@ public interface ApplicationContext {
     <T> T getBootBean(Class<T> type);
     <T> T getBean(String key, Class<T> type);
     Future<Integer> getFuture();
+
+    /**
+     * @return The elapsed times of the boot phases
+     */
+    StartupReport getStartupReport();
 }
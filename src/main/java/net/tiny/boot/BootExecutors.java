@@ -0,0 +1,100 @@
+package net.tiny.boot;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.tiny.logging.LazyLogger;
+
+/**
+ * The executor of the boot tasks.
+ * The virtual threads are found by reflection, the platform threads are used on the runtime before JDK 21.
+ * <code>
+ * executor.mode = platform | virtual | forkjoin | fixed(n)
+ * </code>
+ */
+final class BootExecutors {
+
+    private static final LazyLogger LOGGER = LazyLogger.getLogger(BootExecutors.class.getName());
+
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL  = "virtual";
+    static final String FORKJOIN = "forkjoin";
+    private static final Pattern FIXED = Pattern.compile("fixed\\(\\s*(\\d+)\\s*\\)");
+
+    private static final ThreadFactory VIRTUAL_FACTORY = virtualThreadFactory();
+
+    private BootExecutors() {}
+
+    /**
+     * @param mode The executor mode, null is 'platform'.
+     * @return The executor of the mode
+     */
+    static ExecutorService create(String mode) {
+        final String name = (null == mode) ? PLATFORM : mode.trim().toLowerCase();
+        if (PLATFORM.equals(name)) {
+            return Executors.newCachedThreadPool();
+        }
+        if (VIRTUAL.equals(name)) {
+            if (null == VIRTUAL_FACTORY) {
+                LOGGER.warning("[BOOT] Virtual threads are not supported on Java %s, use platform threads.",
+                        System.getProperty("java.version"));
+                return Executors.newCachedThreadPool();
+            }
+            return threadPerTask(VIRTUAL_FACTORY);
+        }
+        if (FORKJOIN.equals(name)) {
+            return Executors.newWorkStealingPool();
+        }
+        final Matcher matcher = FIXED.matcher(name);
+        if (matcher.matches()) {
+            final int threads = Integer.parseInt(matcher.group(1));
+            if (threads > 0) {
+                return Executors.newFixedThreadPool(threads);
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown executor mode '%s'", mode));
+    }
+
+    /**
+     * @param mode The executor mode
+     * @return The factory of a single thread out of the executor, virtual if the mode is 'virtual'
+     */
+    static ThreadFactory threadFactory(String mode) {
+        if (null != mode && VIRTUAL.equals(mode.trim().toLowerCase()) && null != VIRTUAL_FACTORY) {
+            return VIRTUAL_FACTORY;
+        }
+        return Executors.defaultThreadFactory();
+    }
+
+    static boolean isVirtualSupported() {
+        return null != VIRTUAL_FACTORY;
+    }
+
+    /**
+     * Thread.ofVirtual().name("boot-virtual-", 0).factory()
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object ofVirtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            ofVirtual = builder.getMethod("name", String.class, long.class).invoke(ofVirtual, "boot-virtual-", 0L);
+            return (ThreadFactory) builder.getMethod("factory").invoke(ofVirtual);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Before JDK 21, or not enabled the preview of JDK 19 and 20
+            return null;
+        }
+    }
+
+    private static ExecutorService threadPerTask(ThreadFactory factory) {
+        try {
+            final Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException(ex.getMessage(), ex);
+        }
+    }
+}
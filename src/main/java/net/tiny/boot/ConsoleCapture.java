@@ -1,14 +1,16 @@
 package net.tiny.boot;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public abstract class ConsoleCapture {
 
     static class HistoryPrintStream extends PrintStream {
         private PrintStream originalPrintStream = null;
-        private ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        private History history = new History(0);
 
         public HistoryPrintStream(PrintStream stream) {
             super(stream);
@@ -16,45 +18,211 @@ public abstract class ConsoleCapture {
         }
 
         public void write(byte[] buf, int off, int len) {
-            bout.write(buf, off, len);
+            synchronized (this) {
+                history.write(buf, off, len);
+            }
             super.write(buf, off, len);
         }
 
         public void write(int b) {
-            bout.write(b);
+            synchronized (this) {
+                history.write(b);
+            }
             super.write(b);
         }
 
-        public String toString() {
-            return bout.toString();
+        public synchronized String toString() {
+            return history.toString(Charset.defaultCharset());
+        }
+
+        public synchronized void reset() {
+            history.reset();
         }
 
-        public void reset() {
-            bout.reset();
+        /**
+         * @param capacity The max bytes of the history, 0 is unlimited.
+         */
+        public synchronized void reset(int capacity) {
+            history = new History(capacity);
+        }
+
+        public synchronized boolean contains(String str) {
+            return history.contains(str, Charset.defaultCharset());
         }
 
         public PrintStream getOriginalStream() {
             return originalPrintStream;
         }
 
-        public int length() {
-            return bout.size();
+        public synchronized int length() {
+            return history.length();
         }
 
         public void close() {
-            try {
-                bout.close();
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
+            reset();
             super.close();
         }
     }
 
+    /**
+     * The captured bytes, the oldest bytes are overwritten if the capacity is limited.
+     * The searched strings are matched by KMP while the bytes are written,
+     * so a search scans the new bytes only once.
+     */
+    static final class History {
+        private static final int MAX_MATCHERS = 64;
+
+        private final int capacity;
+        private byte[] buffer;
+        private int head = 0;
+        private long total = 0L;
+        private final Map<String, Matcher> matchers = new LinkedHashMap<String, Matcher>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Matcher> eldest) {
+                return size() > MAX_MATCHERS;
+            }
+        };
+
+        History(int capacity) {
+            this.capacity = capacity;
+            this.buffer = new byte[capacity > 0 ? capacity : 256];
+        }
+
+        void write(int b) {
+            if (capacity == 0 && head == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[head++] = (byte) b;
+            if (capacity > 0 && head == capacity) {
+                head = 0;
+            }
+            total++;
+            for (Matcher matcher : matchers.values()) {
+                matcher.feed((byte) b);
+            }
+        }
+
+        void write(byte[] buf, int off, int len) {
+            for (Matcher matcher : matchers.values()) {
+                matcher.feed(buf, off, len);
+            }
+            total += len;
+            if (capacity == 0) {
+                if (head + len > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, head + len));
+                }
+                System.arraycopy(buf, off, buffer, head, len);
+                head += len;
+                return;
+            }
+            if (len >= capacity) {
+                // Only the last bytes are kept
+                System.arraycopy(buf, off + len - capacity, buffer, 0, capacity);
+                head = 0;
+                return;
+            }
+            final int first = Math.min(len, capacity - head);
+            System.arraycopy(buf, off, buffer, head, first);
+            System.arraycopy(buf, off + first, buffer, 0, len - first);
+            head = (head + len) % capacity;
+        }
+
+        /**
+         * @return The number of the kept bytes
+         */
+        int length() {
+            return (capacity == 0 || total < capacity) ? head : capacity;
+        }
+
+        void reset() {
+            head = 0;
+            total = 0L;
+            matchers.clear();
+        }
+
+        /**
+         * @return true if the bytes were written since the last reset, even if they were overwritten
+         */
+        boolean contains(String str, Charset charset) {
+            if (str.isEmpty()) {
+                return true;
+            }
+            Matcher matcher = matchers.get(str);
+            if (null == matcher) {
+                // Scan the kept bytes once, the next bytes are fed by write
+                matcher = new Matcher(str.getBytes(charset));
+                final int length = length();
+                final int start = (capacity > 0 && total >= capacity) ? head : 0;
+                final int first = Math.min(length, buffer.length - start);
+                matcher.feed(buffer, start, first);
+                matcher.feed(buffer, 0, length - first);
+                matchers.put(str, matcher);
+            }
+            return matcher.found;
+        }
+
+        String toString(Charset charset) {
+            if (capacity == 0 || total < capacity) {
+                return new String(buffer, 0, head, charset);
+            }
+            final byte[] bytes = new byte[capacity];
+            System.arraycopy(buffer, head, bytes, 0, capacity - head);
+            System.arraycopy(buffer, 0, bytes, capacity - head, head);
+            return new String(bytes, charset);
+        }
+    }
+
+    /**
+     * Knuth-Morris-Pratt matcher of a byte pattern over a byte stream.
+     */
+    static final class Matcher {
+        private final byte[] pattern;
+        private final int[] failure;
+        private int state = 0;
+        boolean found = false;
+
+        Matcher(byte[] pattern) {
+            this.pattern = pattern;
+            this.failure = new int[pattern.length];
+            for (int i = 1, k = 0; i < pattern.length; i++) {
+                while (k > 0 && pattern[i] != pattern[k]) {
+                    k = failure[k - 1];
+                }
+                if (pattern[i] == pattern[k]) {
+                    k++;
+                }
+                failure[i] = k;
+            }
+        }
+
+        void feed(byte[] bytes, int off, int len) {
+            for (int i = off, end = off + len; i < end && !found; i++) {
+                feed(bytes[i]);
+            }
+        }
+
+        void feed(byte b) {
+            if (found) {
+                return;
+            }
+            int k = state;
+            while (k > 0 && b != pattern[k]) {
+                k = failure[k - 1];
+            }
+            if (b == pattern[k]) {
+                k++;
+            }
+            if (k == pattern.length) {
+                found = true;
+            }
+            state = k;
+        }
+    }
+
     final HistoryPrintStream historyPrintStream;
     private boolean enableHistory = false;
-    private String history = null;
-    private int historyLength = 0;
 
     protected ConsoleCapture(PrintStream out) {
         historyPrintStream = new HistoryPrintStream(out);
@@ -63,9 +231,20 @@ public abstract class ConsoleCapture {
     abstract void resetStream(PrintStream out);
 
     public void enable(boolean flag) {
+        enable(flag, 0);
+    }
+
+    /**
+     * Capture into a ring buffer, only the last bytes of the capacity are kept.
+     * It is for the long running tests, {@link #contains(String)} scans the new output only.
+     *
+     * @param flag Enable or disable the capture
+     * @param capacity The max bytes of the history, 0 is unlimited.
+     */
+    public void enable(boolean flag, int capacity) {
         enableHistory = flag;
         if (enableHistory) {
-            historyPrintStream.reset();
+            historyPrintStream.reset(capacity);
             resetStream(historyPrintStream);
         } else {
             resetStream(historyPrintStream.getOriginalStream());
@@ -79,8 +258,6 @@ public abstract class ConsoleCapture {
     public void clear() {
         if (enableHistory) {
             historyPrintStream.reset();
-            history = null;
-            historyLength = 0;
         }
     }
 
@@ -91,23 +268,14 @@ public abstract class ConsoleCapture {
         return "";
     }
 
+    /**
+     * @return true if the string was printed since enabled or cleared
+     */
     public boolean contains(String str) {
         if (!enableHistory) {
             return false;
         }
-
-        if (null == history) {
-            history = historyPrintStream.toString();
-        } else if (null != history
-                && historyLength != historyPrintStream.length()) {
-            history = historyPrintStream.toString();
-        }
-
-        if (null != history) {
-            historyLength = historyPrintStream.length();
-            return (0 > history.indexOf(str) ? false : true);
-        }
-        return false;
+        return historyPrintStream.contains(str);
     }
 
     @Override
@@ -8,11 +8,12 @@ import java.lang.management.RuntimeMXBean;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -20,8 +21,9 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -32,6 +34,7 @@ import net.tiny.config.Configuration;
 import net.tiny.config.ConfigurationHandler;
 import net.tiny.config.ContextHandler;
 import net.tiny.config.VcapServices;
+import net.tiny.logging.LazyLogger;
 
 /**
  * <p>
@@ -52,24 +55,34 @@ import net.tiny.config.VcapServices;
  * main = ${server}
  * shutdown = ${hook}
  * daemon = true
+ * parallel = true
  * callback.class = x.y.ServiceContext
  * executor.class = x.y.ExecutorService
+ * executor.mode = platform | virtual | forkjoin | fixed(n)
+ * watch = true
  * server.class = x.y.Launcher
  * hook.class = x.y.ServerShutdown
  * </code>
  * </p>
+ * The configuration file is reloaded on a change if 'watch' is true, the watcher is stopped on the shutdown.
+ * The elapsed times of the boot phases are logged before the boot tasks, see {@link ApplicationContext#getStartupReport()}.
  */
 public class Main {
 
     protected static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    /** The internal boot messages, formatted only if the level is loggable */
+    private static final LazyLogger BOOT_LOGGER = LazyLogger.getLogger(Main.class.getName());
     private static final String BOOT_CONFIG_FILENAME = "application";
 
     private static final String CONFIG_MAIN              = "main";
     private static final String CONFIG_SHUTDOWN          = "shutdown";
     private static final String CONFIG_SHUTDOWN_TIMEOUT  = "shutdownTimeout";
     private static final String CONFIG_DAEMON            = "daemon";
+    private static final String CONFIG_PARALLEL          = "parallel";
     private static final String CONFIG_EXECUTOR          = "executor";
+    private static final String CONFIG_EXECUTOR_MODE     = "executor.mode";
     private static final String CONFIG_CONSUMER_CALLBACK = "callback";
+    private static final String CONFIG_WATCH             = "watch";
     private static final String ENV_PROFILE = "profile";
     private static final String MAIN_METHOD = "main";
 
@@ -77,6 +90,7 @@ public class Main {
 
     protected Integer processId = -1;
     private Map<Class<?>, List<Object>> bootCache = new ConcurrentHashMap<>();
+    private final StartupReport startup = new StartupReport();
 
     public static void main(String[] args) throws Exception {
         Main main = new Main(args);
@@ -96,7 +110,9 @@ public class Main {
     private String configFile;
     private String pidFile;
     private Configuration configuration;
+    private ConfigurationHandler handler;
     private ExecutorService executor;
+    private String executorMode;
     private Consumer<Callable<Properties>> consumer;
     private Throwable lastError;
     private ServiceCollector collector;
@@ -139,7 +155,7 @@ public class Main {
             this.exitCode = -1;
         }
         bootCache.put(bootClass, Arrays.asList(this.configuration.getAs(bootClass)));
-        LOGGER.fine(String.format("[BOOT] Register a boot '%s' on cache.", bootClass.getName()));
+        BOOT_LOGGER.fine("[BOOT] Register a boot '%s' on cache.", bootClass.getName());
     }
 
     @SuppressWarnings("unchecked")
@@ -190,32 +206,48 @@ public class Main {
 
 
         //If not on CL arguments find configuration file on current path with profile
-        this.configFile = matcheConfigFile(this.configFile, this.profile, this.verbose);
+        this.configFile = matcheConfigFile(this.configFile, this.profile, this.verbose, this.startup);
 
 
 
         if (null == this.configFile) {
-            LOGGER.severe("[BOOT] Not found application configuration file in class path or 'user.dir' path.");
+            BOOT_LOGGER.severe("[BOOT] Not found application configuration file in class path or 'user.dir' path.");
             return false;
         }
 
         this.collector = new ServiceCollector();
 
         try {
-            ConfigurationHandler handler = new ConfigurationHandler();
-            handler.setListener(collector);
-            handler.setResource(this.configFile);
-            handler.parse(true);
-            this.configuration = handler.getConfiguration();
+            this.handler = new ConfigurationHandler();
+            this.handler.setListener(collector);
+            this.handler.setResource(this.configFile);
+            long start = startup.start();
+            this.handler.parse(true);
+            startup.stop("parse", start);
+            this.configuration = this.handler.getConfiguration();
 
-            LOGGER.info(String.format("[BOOT] pid: %d, Active profile '%s'.", processId, this.profile));
+            BOOT_LOGGER.info("[BOOT] pid: %d, Active profile '%s'.", processId, this.profile);
 
             if (verbose) {
                 debug(args);
             }
 
             // Apply VcapServices Credentials
+            start = startup.start();
             VcapServices.apply(this.configuration);
+            startup.stop("vcap", start);
+            if (this.configuration.getBoolean(CONFIG_PARALLEL)) {
+                // Create the independent beans in parallel
+                final ForkJoinPool pool = new ForkJoinPool();
+                try {
+                    start = startup.start();
+                    Set<String> beans = this.configuration.remains(pool);
+                    startup.stop("remains.parallel", start);
+                    BOOT_LOGGER.log(loggerLevel, "[BOOT] %d instance(s) were created in parallel.", beans.size());
+                } finally {
+                    pool.shutdown();
+                }
+            }
             List<Object> list = this.configuration.getAs(CONFIG_MAIN, List.class);
             if (null != list) {
                 for (Object boot : list) {
@@ -224,33 +256,45 @@ public class Main {
                         if(null == boots) {
                             boots = new ArrayList<>();
                             bootCache.put(boot.getClass(), boots);
-                            LOGGER.log(loggerLevel, String.format("[BOOT] Register a boot '%s' on cache.", boot.getClass().getName()));
+                            BOOT_LOGGER.log(loggerLevel, "[BOOT] Register a boot '%s' on cache.", boot.getClass().getName());
                         }
                         boots.add(boot);
                     } else {
-                        LOGGER.warning(String.format("'[BOOT] %1$s' is not bootstrap class.", boot.getClass().getName()));
+                        BOOT_LOGGER.warning("'[BOOT] %1$s' is not bootstrap class.", boot.getClass().getName());
                     }
                 }
             } else {
                 if (verbose) {
-                    LOGGER.warning(String.format("[BOOT] Could not find 'main' property to boot. See '%s'", this.configFile));
+                    BOOT_LOGGER.warning("[BOOT] Could not find 'main' property to boot. See '%s'", this.configFile);
 
                 }
             }
 
             this.daemon = this.configuration.getBoolean(CONFIG_DAEMON);
-            this.executor = this.configuration.getAs(CONFIG_EXECUTOR, ExecutorService.class);
+            // See 'executor.mode = virtual' or 'executor = ${pool}'
+            this.executorMode = this.configuration.getString(CONFIG_EXECUTOR_MODE);
+            if (null == this.executorMode) {
+                this.executor = this.configuration.getAs(CONFIG_EXECUTOR, ExecutorService.class);
+            }
             if (null == this.executor) {
-                this.executor = Executors.newCachedThreadPool();
+                this.executor = BootExecutors.create(this.executorMode);
+                BOOT_LOGGER.log(loggerLevel, "[BOOT] Executor mode '%s'.",
+                        null == this.executorMode ? BootExecutors.PLATFORM : this.executorMode);
             }
             // See 'callback.class = xxx'
             this.consumer = this.configuration.getAs(CONFIG_CONSUMER_CALLBACK, Consumer.class);
-            LOGGER.log(loggerLevel, String.format("[BOOT] Load configuration form '%s'", this.configFile));
+            if (this.configuration.getBoolean(CONFIG_WATCH)) {
+                // See 'watch = true'
+                this.handler.watch();
+                ShutdownManager.getInstance().addListener(this.handler::unwatch);
+                BOOT_LOGGER.log(loggerLevel, "[BOOT] Watching configuration '%s'", this.configFile);
+            }
+            BOOT_LOGGER.log(loggerLevel, "[BOOT] Load configuration form '%s'", this.configFile);
             return true;
         } catch (Throwable error) {
             this.lastError = error;
             this.lastError.printStackTrace(System.err);
-            LOGGER.log(Level.SEVERE, String.format("[BOOT] Configuration failed - %s", error.getMessage()), error);
+            BOOT_LOGGER.log(Level.SEVERE, error, "[BOOT] Configuration failed - %s", error.getMessage());
             return false;
         }
     }
@@ -274,7 +318,7 @@ public class Main {
 
     protected int execute() {
         try {
-            LOGGER.log(loggerLevel, String.format("[BOOT] Main process(%d) executing...", processId));
+            BOOT_LOGGER.log(loggerLevel, "[BOOT] Main process(%d) executing...", processId);
             final List<Callable<Void>> calls = new ArrayList<Callable<Void>>();
             final Set<Class<?>> keys = bootCache.keySet();
 
@@ -282,59 +326,80 @@ public class Main {
                 Object[] boots = bootCache.get(key).toArray();
                 for (Object boot : boots) {
                     if (isRunnable(boot)) {
-                        LOGGER.log(loggerLevel, String.format("[BOOT] %s preparing...", boot.toString()));
+                        BOOT_LOGGER.log(loggerLevel, "[BOOT] %s preparing...", boot);
                         calls.add(new Callable<Void>() {
                             public Void call() throws IOException {
-                                ((Runnable)boot).run();
+                                final long start = startup.start();
+                                try {
+                                    ((Runnable)boot).run();
+                                } finally {
+                                    taskCompleted(boot.getClass(), start);
+                                }
                                 return null;
                            }
                          });
                      } else {
                         final Method method = boot.getClass().getMethod(MAIN_METHOD, String[].class);
                         if (this.daemon) {
-                            LOGGER.log(loggerLevel, String.format("[BOOT] %s preparing...", boot.getClass().getSimpleName()));
+                            BOOT_LOGGER.log(loggerLevel, "[BOOT] %s preparing...", boot.getClass().getSimpleName());
                             calls.add(new Callable<Void>() {
                                   public Void call() throws IOException {
+                                      final long start = startup.start();
                                       try {
                                           // static method doesn't have an instance
                                           String[] args = new String[arguments.length + 2];
                                           System.arraycopy(arguments, 0, args, 0, arguments.length);
                                           method.invoke(null, (Object)args);
                                       } catch (Throwable ex) {
-                                          LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
+                                          BOOT_LOGGER.log(Level.SEVERE, ex, ex.getMessage());
+                                      } finally {
+                                          taskCompleted(boot.getClass(), start);
                                       }
                                       return null;
                                  }
                                });
                         } else {
-                            LOGGER.log(loggerLevel, String.format("[BOOT] %s.main() executing...", boot.getClass().getSimpleName()));
+                            BOOT_LOGGER.log(loggerLevel, "[BOOT] %s.main() executing...", boot.getClass().getSimpleName());
                             // static method doesn't have an instance
-                            method.invoke(null, (Object)this.arguments);
+                            final long start = startup.start();
+                            try {
+                                method.invoke(null, (Object)this.arguments);
+                            } finally {
+                                taskCompleted(boot.getClass(), start);
+                            }
                         }
                     }
                 }
             }
 
-            LOGGER.info(String.format("[BOOT] %d task(s) executing ...", calls.size()));
+            BOOT_LOGGER.info("[BOOT] %d task(s) executing ...", calls.size());
             List<Future<Void>> answers = this.executor.invokeAll(calls);
-            LOGGER.info(String.format("[BOOT] %d task(s) completed. Main process(%d) normle to exit(0).", answers.size(), processId));
+            BOOT_LOGGER.info("[BOOT] %d task(s) completed. Main process(%d) normle to exit(0).", answers.size(), processId);
             return 0;
         } catch (Throwable error) {
             this.lastError = error;
-            LOGGER.log(Level.SEVERE, String.format("[BOOT] Main process(%d) failed to exit(1) - '%s'.", processId, error.getMessage()), error);
+            BOOT_LOGGER.log(Level.SEVERE, error, "[BOOT] Main process(%d) failed to exit(1) - '%s'.", processId, error.getMessage());
             return 1;
         }
     }
 
+    private void taskCompleted(Class<?> bootClass, long start) {
+        final StartupReport.Phase phase = startup.stop("task " + bootClass.getSimpleName(), start);
+        BOOT_LOGGER.log(loggerLevel, "[BOOT] %s completed in %dms.",
+                bootClass.getSimpleName(), phase.getDuration(TimeUnit.MILLISECONDS));
+    }
+
     protected ApplicationContext run() {
         return run(true);
     }
 
     public ApplicationContext run(boolean sync) {
         bootCache = Collections.unmodifiableMap(bootCache);
+        long start = startup.start();
         Set<String> unimps = this.configuration.remains();
+        startup.stop("remains", start);
         if (!unimps.isEmpty()) {
-            LOGGER.info(String.format("[BOOT] Found %d instance(s) '%s' that have not referenced.", unimps.size(), unimps.toString()));
+            BOOT_LOGGER.info("[BOOT] Found %d instance(s) '%s' that have not referenced.", unimps.size(), unimps);
         }
         // Run service consumer callback to register all singleton services in container.
         // See 'callback.class = x.y.ServiceContext'
@@ -350,16 +415,17 @@ public class Main {
                     for (String key : collector.keys()) {
                         services.put(key, collector.get(key));
                     }
-                    LOGGER.log(loggerLevel, String.format("[BOOT] The service properties(%d) is forwarded.", services.size()));
+                    BOOT_LOGGER.log(loggerLevel, "[BOOT] The service properties(%d) is forwarded.", services.size());
                     collector.collection.clear();
                     return services;
                 }
             });
         } else {
-            LOGGER.log(loggerLevel, String.format("[BOOT] The application context is saved on JVM properties by PID:%d", processId));
+            BOOT_LOGGER.log(loggerLevel, "[BOOT] The application context is saved on JVM properties by PID:%d", processId);
             System.getProperties().put(getProcessId().toString(), this);
         }
 
+        BOOT_LOGGER.log(loggerLevel, "[BOOT] %s", startup);
         final ApplicationContextWrapper context = new ApplicationContextWrapper(this);
         if (this.bootClass == null) {
             // Run base on configuration
@@ -372,16 +438,21 @@ public class Main {
                             return code;
                     }
                  };
-                LOGGER.log(loggerLevel, "[BOOT] asynchronous executing...");
-                context.setFuture(Executors.newSingleThreadExecutor().submit(call));
+                BOOT_LOGGER.log(loggerLevel, "[BOOT] asynchronous executing...");
+                final FutureTask<Integer> task = new FutureTask<>(call);
+                BootExecutors.threadFactory(this.executorMode).newThread(task).start();
+                context.setFuture(task);
             }
         } else {
-            LOGGER.info(String.format("[BOOT] '%s' executing...", this.bootClass.getName()));
+            BOOT_LOGGER.info("[BOOT] '%s' executing...", this.bootClass.getName());
         }
         return context;
     }
 
     protected int exit() {
+        if (null != this.handler) {
+            this.handler.unwatch();
+        }
         this.configuration.destroy();
         new ExecutorShutdownHook(this.executor, this.shutdownTimeout).run();
         bootCache = null;
@@ -410,10 +481,14 @@ public class Main {
         return String.format("%s@%d-%s", getClass().getName(), getProcessId(), getProfile());
     }
 
-    private static String matcheConfigFile(String config, String prof, boolean debug) {
+    private static String matcheConfigFile(String config, String prof, boolean debug, StartupReport startup) {
+        long start = startup.start();
         String file = findConfigResource(config, prof, debug);
+        startup.stop("discovery.resource", start);
         if (file == null) {
+            start = startup.start();
             file = findLocalConfigFile(config, prof, debug);
+            startup.stop("discovery.local", start);
         }
         return file;
     }
@@ -467,13 +542,13 @@ public class Main {
         File[] files = path.listFiles(filter);
         if(null == files || files.length == 0) {
             if(debug)
-                LOGGER.warning(String.format("[BOOT] Can not matched '%s' file on '%s'", regex.toString(), path.getAbsolutePath()));
+                BOOT_LOGGER.warning("[BOOT] Can not matched '%s' file on '%s'", regex, path.getAbsolutePath());
             return null;
         }
         try {
             return files[0].getCanonicalPath();
         } catch (IOException ex) {
-            LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
+            BOOT_LOGGER.log(Level.SEVERE, ex, ex.getMessage());
             return null;
         }
     }
@@ -528,7 +603,7 @@ public class Main {
                 .append(env.get(key))
                 .append("'\r\n");
         }
-        LOGGER.info(sb.toString());
+        BOOT_LOGGER.info(sb.toString());
     }
 
     class ExecutorShutdownHook implements Runnable {
@@ -548,7 +623,7 @@ public class Main {
                 pool.shutdownNow(); // Cancel currently executing tasks
                 // Wait a while for tasks to respond to being cancelled
                 if (!pool.awaitTermination(timeout, TimeUnit.SECONDS)) {
-                    LOGGER.warning("[BOOT] Thread pool terminate to timeout.");
+                    BOOT_LOGGER.warning("[BOOT] Thread pool terminate to timeout.");
                 }
               }
             } catch (InterruptedException ie) {
@@ -557,7 +632,7 @@ public class Main {
               // Preserve interrupt status
               Thread.currentThread().interrupt();
             }
-            LOGGER.log(loggerLevel, "[BOOT] Thread pool terminated.");
+            BOOT_LOGGER.log(loggerLevel, "[BOOT] Thread pool terminated.");
         }
     }
 
@@ -620,6 +695,11 @@ public class Main {
             return delgate.lastError;
         }
 
+        @Override
+        public StartupReport getStartupReport() {
+            return delgate.startup;
+        }
+
         @Override
         public Future<Integer> getFuture() {
             return result;
@@ -631,23 +711,46 @@ public class Main {
     }
 
     class ServiceCollector implements ContextHandler.Listener {
-        final Map<String, Object> collection = new HashMap<>();
+        final Map<String, Object> collection = new ConcurrentHashMap<>();
+        // The start times of the beans in creation, the nested beans are on the top
+        private final ThreadLocal<Deque<Long>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+
+        @Override
+        public void creating(Class<?> beanClass) {
+            creating.get().push(startup.start());
+        }
+
+        @Override
+        public void failed(Class<?> beanClass) {
+            creating.get().poll();
+        }
+
         @Override
         public void created(Object bean, Class<?> beanClass) {
-            LOGGER.log(loggerLevel, String.format("[BOOT] '%s'#%d was created.", beanClass.getSimpleName(), bean.hashCode()));
+            final Long start = creating.get().poll();
+            if (null != start) {
+                // Grouped by the class, the report does not grow with the beans
+                startup.stop("create ", beanClass, start);
+            }
+            BOOT_LOGGER.log(loggerLevel, "[BOOT] '%s'#%d was created.", beanClass.getSimpleName(), bean.hashCode());
         }
 
         @Override
         public void parsed(String type, String resource, int size) {
-            LOGGER.config(String.format("[BOOT] %s '%s'(%d) was parsed.", type, String.valueOf(resource), size));
+            BOOT_LOGGER.config("[BOOT] %s '%s'(%d) was parsed.", type, resource, size);
+        }
+
+        @Override
+        public void reloaded(String resource, Configuration.Diff diff) {
+            BOOT_LOGGER.info("[BOOT] '%s' was reloaded %s", resource, diff);
         }
 
         @Override
         public void cached(String name, Object value, boolean config) {
             if (config) {
-                LOGGER.log(loggerLevel, String.format("[BOOT] Cached Configuration#%d' by '%s'", value.hashCode(), name));
+                BOOT_LOGGER.log(loggerLevel, "[BOOT] Cached Configuration#%d' by '%s'", value.hashCode(), name);
             } else {
-                LOGGER.log(loggerLevel, String.format("[BOOT] Cached '%s' = '%s'", name, value.toString()));
+                BOOT_LOGGER.log(loggerLevel, "[BOOT] Cached '%s' = '%s'", name, value);
                 collection.put(name, value);
             }
         }
@@ -0,0 +1,160 @@
+package net.tiny.boot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The elapsed times of the boot phases, measured by {@link System#nanoTime()}.
+ * The phases may overlap, the beans are created in parallel and a bean includes its nested beans.
+ * The phases of the same class, e.g. the bean creations, are grouped into one phase.
+ * <code>
+ * ApplicationContext context = new Main(args).run(false);
+ * LOGGER.info(context.getStartupReport().toString());
+ * </code>
+ */
+public final class StartupReport {
+
+    public static final class Phase {
+        private final String name;
+        private final long start;
+        private final long end;
+        private final long duration;
+        private final int count;
+
+        Phase(String name, long start, long end, long duration, int count) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.duration = duration;
+            this.count = count;
+        }
+
+        private Phase add(long start, long end) {
+            return new Phase(name, Math.min(this.start, start), Math.max(this.end, end),
+                    duration + end - start, count + 1);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The start time since the boot
+         */
+        public long getStart(TimeUnit unit) {
+            return unit.convert(start, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return The total time of the grouped phases
+         */
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(duration, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return The number of the grouped phases
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %.3fms", name, duration / 1000000d);
+        }
+    }
+
+    private static final Comparator<Phase> SLOWEST = (p1, p2) -> Long.compare(p2.duration, p1.duration);
+
+    private final long origin = System.nanoTime();
+    private final Queue<Phase> phases = new ConcurrentLinkedQueue<>();
+    private final Map<Class<?>, Phase> groups = new ConcurrentHashMap<>();
+
+    StartupReport() {}
+
+    /**
+     * @return The start time of a phase
+     */
+    long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @param name The phase name
+     * @param start The time of {@link #start()}
+     * @return The recorded phase
+     */
+    Phase stop(String name, long start) {
+        final long end = System.nanoTime() - origin;
+        final long from = start - origin;
+        final Phase phase = new Phase(name, from, end, end - from, 1);
+        phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Add the phase to the group of the class, the name is made only for the first one.
+     *
+     * @param prefix The prefix of the group name
+     * @param type The class of the group
+     * @param start The time of {@link #start()}
+     */
+    void stop(String prefix, Class<?> type, long start) {
+        final long end = System.nanoTime() - origin;
+        final long from = start - origin;
+        groups.compute(type, (k, phase) -> null == phase
+                ? new Phase(prefix + k.getSimpleName(), from, end, end - from, 1)
+                : phase.add(from, end));
+    }
+
+    /**
+     * @return The phases sorted by the duration, the slowest is first
+     */
+    public List<Phase> getPhases() {
+        final List<Phase> list = new ArrayList<>(phases);
+        list.addAll(groups.values());
+        Collections.sort(list, SLOWEST);
+        return list;
+    }
+
+    /**
+     * @return The elapsed time from the boot to the end of the last phase
+     */
+    public long getElapsed(TimeUnit unit) {
+        long end = 0L;
+        for (Phase phase : phases) {
+            end = Math.max(end, phase.end);
+        }
+        for (Phase phase : groups.values()) {
+            end = Math.max(end, phase.end);
+        }
+        return unit.convert(end, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        final long elapsed = getElapsed(TimeUnit.NANOSECONDS);
+        final StringBuilder sb = new StringBuilder();
+        final List<Phase> list = getPhases();
+        sb.append(String.format("Startup report - %d phase(s) in %.3fms", list.size(), elapsed / 1000000d));
+        for (Phase phase : list) {
+            sb.append(String.format("%n%12.3fms %5.1f%% @%.3fms  %s",
+                    phase.duration / 1000000d,
+                    elapsed > 0L ? phase.duration * 100d / elapsed : 0d,
+                    phase.start / 1000000d,
+                    phase.name));
+            if (phase.count > 1) {
+                sb.append(" x").append(phase.count);
+            }
+        }
+        return sb.toString();
+    }
+}
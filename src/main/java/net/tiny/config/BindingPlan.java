@@ -0,0 +1,119 @@
+package net.tiny.config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The bean wiring plan of a class.
+ * Fields, setters and value converters are resolved once per class
+ * and reused for every bean instance wired by {@link Configuration}.
+ *
+ */
+final class BindingPlan {
+
+    /** Static method exclude filter */
+    private static final Predicate<Method> IS_NOT_STATIC_METHOD = (method) -> !Modifier.isStatic(method.getModifiers());
+
+    /** Public method include filter */
+    private static final Predicate<Method> IS_PUBLIC_METHOD     = (method) -> Modifier.isPublic(method.getModifiers());
+
+    /** Setter method include filter */
+    private static final Predicate<Method> IS_SETTER_METHOD     = (method) -> method.getName().startsWith("set") && method.getName().length() > 3;
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type);
+        }
+    };
+
+    static BindingPlan of(Class<?> beanClass) {
+        return PLANS.get(beanClass);
+    }
+
+    /**
+     * A field of the bean, injected by its setter method if any.
+     */
+    static final class FieldBinding {
+        final Field field;
+        final String name;
+        final Class<?> type;
+        final Method setter;
+        final Injector injector;
+        final Converter.StringValueConverter<?> converter;
+
+        FieldBinding(Class<?> beanClass, Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.type = field.getType();
+            this.setter = Reflections.getSetter(beanClass, field);
+            this.injector = (setter != null) ? Injector.of(setter) : Injector.of(field);
+            this.converter = Converter.converters.get(this.type);
+        }
+
+        Object convert(String value, Converter fallback) {
+            if (converter != null) {
+                return converter.convert(value);
+            }
+            return fallback.convert(value, type);
+        }
+    }
+
+    /**
+     * A public setter method of the bean, with its property name.
+     */
+    static final class SetterBinding {
+        final Method setter;
+        final String name;
+        final Class<?> type;
+        final Injector injector;
+        final Converter.StringValueConverter<?> converter;
+
+        SetterBinding(Method setter) {
+            this.setter = setter;
+            this.injector = Injector.of(setter);
+            final String methodName = setter.getName();
+            this.name = new StringBuilder()
+                    .append(Character.toLowerCase(methodName.charAt(3)))
+                    .append(methodName.substring(4))
+                    .toString();
+            this.type = setter.getParameterTypes()[0];
+            this.converter = Converter.converters.get(this.type);
+        }
+
+        Object convert(String value, Converter fallback) {
+            if (converter != null) {
+                return converter.convert(value);
+            }
+            return fallback.convert(value, type);
+        }
+    }
+
+    final Class<?> beanClass;
+    final List<FieldBinding> fields;
+    final List<SetterBinding> setters;
+
+    private BindingPlan(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        final List<FieldBinding> fieldList = new ArrayList<>();
+        Reflections.getFieldStream(beanClass)
+            .forEach(field -> fieldList.add(new FieldBinding(beanClass, field)));
+        this.fields = Collections.unmodifiableList(fieldList);
+        this.setters = Collections.unmodifiableList(
+                Reflections.getSetterStream(beanClass, IS_NOT_STATIC_METHOD.and(IS_PUBLIC_METHOD).and(IS_SETTER_METHOD))
+                    .map(SetterBinding::new)
+                    .collect(Collectors.toList()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s) fields:%d setters:%d",
+                getClass().getSimpleName(), beanClass.getName(), fields.size(), setters.size());
+    }
+}
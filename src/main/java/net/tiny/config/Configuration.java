@@ -6,7 +6,6 @@ import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -15,100 +14,226 @@ import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import net.tiny.logging.LazyLogger;
 import net.tiny.logging.LevelableHandler;
 
 public class Configuration implements Serializable {
 
     /** serialVersionUID */
     private static final long serialVersionUID = 1L;
-    private static final String LIST_REGEX = "[ ]*,[ ]*";
     private static final String CLASS_KEY = "class";
     private static final String THIS_KEY = "${this}";
+    private static final Object NONE = new Object();
 
-    /** Static method exclude filter */
-    private static final Predicate<Method> IS_NOT_STATIC_METHOD = (method) -> !Modifier.isStatic(method.getModifiers());
-
-    /** Public method include filter */
-    private static final Predicate<Method> IS_PUBLIC_METHOD     = (method) -> Modifier.isPublic(method.getModifiers());
-
-    /** Setter method include filter */
-    private static final Predicate<Method> IS_SETTER_METHOD     = (method) -> method.getName().startsWith("set");
-
-    private static Logger LOGGER = Logger.getLogger(Configuration.class.getName());
+    private static LazyLogger LOGGER = LazyLogger.getLogger(Configuration.class.getName());
 
+    /**
+     * Resolve the '${name}' placeholders of a value in one pass.
+     * Nested placeholders '${${a}.b}' are resolved from inside,
+     * a cycle reference is detected by the chain of the names being resolved.
+     */
     static abstract class VariablesReplacement {
-        static final int    REFER_MAX = 10;
         static final String DOLLAR_BRACKET_START = "${";
-        static final String DOLLAR_BRACKET_END = "}";
+        static final char   DOLLAR = '$';
+        static final char   BRACKET_START = '{';
+        static final char   BRACKET_END = '}';
 
         public String replace(String value, boolean nameOnly) {
-            StringBuffer buffer = new StringBuffer(value);
-            int previousBegin = buffer.lastIndexOf(DOLLAR_BRACKET_START);
-            int previousEnd = buffer.indexOf(DOLLAR_BRACKET_END, previousBegin);
-            if(nameOnly && previousBegin == 0 && previousEnd == (buffer.length()-1)) {
-                return buffer.substring(previousBegin + 2, previousEnd);
-            }
-            int count = 0;
-            while (hasVariables(buffer.toString())) {
-                previousBegin = buffer.lastIndexOf(DOLLAR_BRACKET_START);
-                previousEnd = buffer.indexOf(DOLLAR_BRACKET_END, previousBegin);
-                if(nameOnly && previousBegin == 0 && previousEnd == (buffer.length()-1)) {
-                    return buffer.substring(previousBegin + 2, previousEnd);
+            if (nameOnly && value.length() > 3 && value.charAt(0) == DOLLAR && value.charAt(1) == BRACKET_START
+                    && closing(value, 0) == value.length() - 1) {
+                // The whole value is a reference name
+                final String name = value.substring(2, value.length() - 1);
+                return hasVariables(name) ? resolve(name, new ArrayDeque<>()) : name;
+            }
+            return resolve(value, new ArrayDeque<>());
+        }
+
+        public String replaceName(String value) {
+            return replace(value, true);
+        }
+
+        public String replaceValue(String value) {
+            return replace(value, false);
+        }
+
+        /**
+         * Resolve the value of a property key.
+         * @param key The property key of the value, is the root of the reference chain.
+         * @param value The property value.
+         * @return The resolved value, or null if a reference is not found.
+         */
+        String resolve(String key, String value) {
+            final Deque<String> chain = new ArrayDeque<>();
+            chain.push(key);
+            return resolve(value, chain);
+        }
+
+        private String resolve(String value, Deque<String> chain) {
+            int begin = value.indexOf(DOLLAR_BRACKET_START);
+            if (begin < 0) {
+                return value;
+            }
+            final int length = value.length();
+            final StringBuilder buffer = new StringBuilder(length + 16);
+            int pos = 0;
+            while (begin >= 0) {
+                final int end = closing(value, begin);
+                if (end < 0) {
+                    break;
                 }
-                String var = buffer.substring(previousBegin + 2, previousEnd);
-                String replaced = replace(var);
-                if (null != replaced) {
-                    if(replaced.equals(DOLLAR_BRACKET_START + var + DOLLAR_BRACKET_END)) {
-                        throw new RuntimeException(
-                                String.format("The property value '%s' can not resue self name.", replaced));
-                    }
-                    buffer.replace(previousBegin, previousEnd + 1, replaced);
-                    count++;
-                    if(count > REFER_MAX) {
-                        throw new RuntimeException(
-                                String.format("Can not cycle reference '%s'.", replaced));
+                buffer.append(value, pos, begin);
+                String name = value.substring(begin + 2, end);
+                if (name.indexOf(DOLLAR_BRACKET_START) >= 0) {
+                    name = resolve(name, chain);
+                    if (null == name) {
+                        return null;
                     }
-                } else {
+                }
+                final String replaced = lookup(name, chain);
+                if (null == replaced) {
                     return null;
                 }
+                buffer.append(replaced);
+                pos = end + 1;
+                begin = value.indexOf(DOLLAR_BRACKET_START, pos);
             }
+            buffer.append(value, pos, length);
             return buffer.toString();
         }
 
-        public String replaceName(String value) {
-            return replace(value, true);
+        private String lookup(String name, Deque<String> chain) {
+            if (name.equals(chain.peek())) {
+                throw new RuntimeException(
+                        String.format("The property value '%s' can not resue self name.", DOLLAR_BRACKET_START + name + BRACKET_END));
+            }
+            if (chain.contains(name)) {
+                throw new RuntimeException(
+                        String.format("Can not cycle reference '%s'.", DOLLAR_BRACKET_START + name + BRACKET_END));
+            }
+            final String value = replace(name);
+            if (null == value || value.indexOf(DOLLAR_BRACKET_START) < 0) {
+                return value;
+            }
+            chain.push(name);
+            try {
+                return resolve(value, chain);
+            } finally {
+                chain.pop();
+            }
         }
 
-        public String replaceValue(String value) {
-            return replace(value, false);
+        /**
+         * Find the position of the closing bracket of '${' at the begin position.
+         */
+        static int closing(String value, int begin) {
+            int depth = 0;
+            final int length = value.length();
+            for (int i = begin + 2; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c == BRACKET_END) {
+                    if (depth == 0) {
+                        return i;
+                    }
+                    depth--;
+                } else if (c == DOLLAR && i + 1 < length && value.charAt(i + 1) == BRACKET_START) {
+                    depth++;
+                    i++;
+                }
+            }
+            return -1;
         }
 
         public static boolean hasVariables(String value) {
             if(value == null)
                 return false;
-            return value.contains(DOLLAR_BRACKET_START) && value.contains(DOLLAR_BRACKET_END);
+            final int begin = value.indexOf(DOLLAR_BRACKET_START);
+            return begin >= 0 && value.indexOf(BRACKET_END, begin) > 0;
         }
 
         abstract String replace(String var);
     }
 
+    /**
+     * Sorted index of the string property names.
+     * Prefix lookups walk only the matched range of keys, O(log n + matches).
+     */
+    static final class KeyIndex implements Serializable {
+        /** serialVersionUID */
+        private static final long serialVersionUID = 1L;
+        private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+
+        KeyIndex(Map<String, Object> store) {
+            store.forEach((k, v) -> {
+                if (v instanceof String) {
+                    keys.add(k);
+                }
+            });
+        }
+
+        void add(String key) {
+            keys.add(key);
+        }
+
+        void remove(String key) {
+            keys.remove(key);
+        }
+
+        void clear() {
+            keys.clear();
+        }
+
+        Stream<String> stream() {
+            return keys.stream();
+        }
+
+        Stream<String> prefixed(String prefix) {
+            return Streams.fit(keys.tailSet(prefix, true).stream(), k -> k.startsWith(prefix));
+        }
+
+        boolean hasPrefix(String prefix) {
+            final String key = keys.ceiling(prefix);
+            return key != null && key.startsWith(prefix);
+        }
+    }
+
     private final Converter converter;
-    private final Properties properties;
+    /** The property values, the cached beans and sub configurations. Reads take no locks */
+    private final Map<String, Object> store;
+    private final KeyIndex index;
+    /** The source values of the properties, kept after a value was replaced by a cached object */
+    private final Map<String, String> sources;
+    /** The keys appended at runtime, e.g. the VCAP credentials, overlay the reloaded resource */
+    private final Set<String> appended = ConcurrentHashMap.newKeySet();
+    /** The resolved values of the property that have references, replaced on any change of the properties */
+    private volatile Map<String, String> resolved = new ConcurrentHashMap<>();
+    /** The converted values by type, replaced on any change of the properties */
+    private volatile Map<Class<?>, Map<String, Object>> converted = new ConcurrentHashMap<>();
+    /** The locks of the bean keys being created */
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
     private final String parent;
     private final ContextHandler.Listener listener;
 
@@ -118,7 +243,9 @@ public class Configuration implements Serializable {
 
     public Configuration(Properties defaults, ContextHandler.Listener listener, boolean logging) {
         this.parent = null;
-        this.properties = defaults;
+        this.store = storeOf(defaults);
+        this.index = new KeyIndex(this.store);
+        this.sources = sourcesOf(this.store);
         this.listener = listener;
         this.converter = new Converter();
         if (logging) {
@@ -130,15 +257,39 @@ public class Configuration implements Serializable {
         }
     }
 
-    private Configuration(String parent, Properties defaults, Converter converter, ContextHandler.Listener listener) {
+    private Configuration(String parent, Map<String, Object> store, Converter converter, ContextHandler.Listener listener) {
         this.parent = parent;
-        this.properties = defaults;
+        this.store = store;
+        this.index = new KeyIndex(store);
+        this.sources = sourcesOf(store);
         this.converter = converter;
         this.listener = listener;
     }
 
+    private static Map<String, Object> storeOf(Properties defaults) {
+        final Map<String, Object> store = new ConcurrentHashMap<>(Math.max(16, defaults.size() * 4 / 3 + 1));
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            store.put(entry.getKey().toString(), entry.getValue());
+        }
+        // Include the values of the default properties
+        for (String name : defaults.stringPropertyNames()) {
+            store.putIfAbsent(name, defaults.getProperty(name));
+        }
+        return store;
+    }
+
+    private static Map<String, String> sourcesOf(Map<String, Object> store) {
+        final Map<String, String> sources = new ConcurrentHashMap<>(Math.max(16, store.size() * 4 / 3 + 1));
+        store.forEach((k, v) -> {
+            if (v instanceof String) {
+                sources.put(k, (String)v);
+            }
+        });
+        return sources;
+    }
+
     public Set<String> getAllPropertyNames() {
-        return this.properties.stringPropertyNames();
+        return getNameStream().collect(Collectors.toSet());
     }
 
     public Set<String> getPropertyNames(Predicate<String> predicate) {
@@ -146,27 +297,38 @@ public class Configuration implements Serializable {
     }
 
     protected Stream<String> getNameStream(Predicate<String> predicate) {
-        return this.properties.stringPropertyNames().stream().filter(predicate);
+        return getNameStream().filter(predicate);
     }
 
     public boolean contains(String name) {
-        return this.properties.containsKey(name);
+        return this.store.containsKey(name);
     }
 
     public int size() {
-        return this.properties.size();
+        return this.store.size();
     }
 
     private Stream<String> getNameStream() {
-        return this.properties.stringPropertyNames().stream();
+        return this.index.stream();
+    }
+
+    private Stream<String> getNameStream(String prefix) {
+        return this.index.prefixed(prefix);
     }
 
     private String getProperty(String key) {
-        return this.properties.getProperty(key);
+        final Object value = this.store.get(key);
+        return (value instanceof String) ? (String)value : null;
     }
 
     private Object getObject(String key) {
-        return this.properties.get(key);
+        return this.store.get(key);
+    }
+
+    private Properties toProperties() {
+        final Properties properties = new Properties();
+        properties.putAll(this.store);
+        return properties;
     }
 
     private void setObject(String key, Object value) {
@@ -177,19 +339,62 @@ public class Configuration implements Serializable {
                 listener.cached(key, value, false);
             }
         }
-        this.properties.put(key, value);
+        final Object old = this.store.put(key, value);
+        if (old instanceof String) {
+            invalidate();
+        }
+        if (value instanceof String) {
+            this.index.add(key);
+            this.sources.put(key, (String)value);
+        } else {
+            // Cached objects are not property names
+            this.index.remove(key);
+        }
     }
 
     public String getString(String key) {
-        String value = getProperty(key);
+        // Take the cache before resolving the value, a stale value is put into the replaced cache
+        final Map<String, String> cache = this.resolved;
+        String value = cache.get(key);
+        if (null != value) {
+            return value;
+        }
+        value = getProperty(key);
         if(VariablesReplacement.hasVariables(value)) {
-            return getReference(value);
+            value = getReference(key, value);
+            if (null != value) {
+                cache.put(key, value);
+            }
         }
         return value;
     }
 
     protected <T> T getValue(Class<T> classType, String key) {
-        return this.converter.convert(getString(key), classType);
+        final T value = getConverted(classType, key, v -> this.converter.convert(v, classType));
+        if (value instanceof Date) {
+            // Date is mutable
+            return classType.cast(((Date)value).clone());
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getConverted(Class<?> type, String key, Function<String, T> conversion) {
+        // Take the cache before reading the value, a stale value is put into the replaced cache
+        final Map<String, Object> cache = this.converted.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        Object value = cache.get(key);
+        if (null == value) {
+            value = conversion.apply(getString(key));
+            cache.put(key, (null == value) ? NONE : value);
+        } else if (NONE == value) {
+            return null;
+        }
+        return (T)value;
+    }
+
+    private void invalidate() {
+        this.resolved = new ConcurrentHashMap<>();
+        this.converted = new ConcurrentHashMap<>();
     }
 
     public Integer getInteger(String key) {
@@ -236,12 +441,47 @@ public class Configuration implements Serializable {
         return getValue(BigDecimal.class, key);
     }
 
+    public int getInt(String key, int defaultValue) {
+        final Integer value = getConverted(int.class, key, v -> null == v ? null : Converter.INT.applyAsInt(v));
+        return (null == value) ? defaultValue : value;
+    }
+
+    public long getLongValue(String key, long defaultValue) {
+        final Long value = getConverted(long.class, key, v -> null == v ? null : Converter.LONG_VALUE.applyAsLong(v));
+        return (null == value) ? defaultValue : value;
+    }
+
+    public double getDoubleValue(String key, double defaultValue) {
+        final Double value = getConverted(double.class, key, v -> null == v ? null : Converter.DOUBLE_VALUE.applyAsDouble(v));
+        return (null == value) ? defaultValue : value;
+    }
+
+    public boolean getBooleanValue(String key, boolean defaultValue) {
+        final Boolean value = getConverted(boolean.class, key, v -> null == v ? null : Converter.BOOLEAN_VALUE.test(v));
+        return (null == value) ? defaultValue : value;
+    }
+
+    public int[] getInts(String key) {
+        final int[] values = getConverted(int[].class, key, v -> null == v ? null : this.converter.convertInts(v));
+        return (null == values) ? null : values.clone();
+    }
+
+    public long[] getLongs(String key) {
+        final long[] values = getConverted(long[].class, key, v -> null == v ? null : this.converter.convertLongs(v));
+        return (null == values) ? null : values.clone();
+    }
+
+    public double[] getDoubles(String key) {
+        final double[] values = getConverted(double[].class, key, v -> null == v ? null : this.converter.convertDoubles(v));
+        return (null == values) ? null : values.clone();
+    }
+
     public Properties getProperties(String key) {
         String prefix = key + ".";
         // Generate a sub configuration by the key
         Properties prop = new Properties();
         int pos = prefix.length();
-        getNameStream().filter(k -> k.startsWith(prefix))
+        getNameStream(prefix)
                 .forEach(name -> prop.setProperty(name.substring(pos), getString(name)));
         return prop;
     }
@@ -286,9 +526,9 @@ public class Configuration implements Serializable {
 
     private <T> Configuration findConfiguration(String key, Class<T> beanClass) {
         // Generate a sub configuration by the key
-        Properties prop = new Properties();
+        Map<String, Object> prop = new ConcurrentHashMap<>();
         int pos = key.length();
-        getNameStream().filter(k -> k.startsWith(key))
+        getNameStream(key)
                 .forEach(name -> pushValue(prop, pos, name, beanClass));
         if(!prop.isEmpty()) {
             return new Configuration(key, prop, this.converter, this.listener);
@@ -296,7 +536,7 @@ public class Configuration implements Serializable {
         return null;
     }
 
-    private <T> void pushValue(Properties prop, int pos, String name, Class<T> beanClass) {
+    private <T> void pushValue(Map<String, Object> prop, int pos, String name, Class<T> beanClass) {
         String key = name.substring(pos);
         String value = getProperty(name);
         prop.put(key, value);
@@ -338,11 +578,11 @@ public class Configuration implements Serializable {
                 beans = new ArrayList<>();
             }
             if (VariablesReplacement.hasVariables(value)) {
-                String[] array = value.split(LIST_REGEX);
+                String[] array = Converter.STRING_ARRAY.convert(value);
                 VariablesReplacement replacement = new VariablesReplacement() {
                     @Override
                     String replace(String var) {
-                        return properties.getProperty(var);
+                        return getProperty(var);
                     }
                 };
                 for(String var : array) {
@@ -355,7 +595,7 @@ public class Configuration implements Serializable {
                         if(null != obj) {
                             beans.add(obj);
                         } else {
-                            LOGGER.log(Level.WARNING, String.format("Not found ${%s} (%2s)instance.", propertyName, beanClass.getSimpleName()));
+                            LOGGER.log(Level.WARNING, "Not found ${%s} (%2s)instance.", propertyName, beanClass.getSimpleName());
                         }
                     }
                 }
@@ -374,13 +614,18 @@ public class Configuration implements Serializable {
     }
 
     String getReference(String value) {
+        return getReference(null, value);
+    }
+
+    private String getReference(String key, String value) {
         try {
-            return new VariablesReplacement() {
+            final VariablesReplacement replacement = new VariablesReplacement() {
                 @Override
                 String replace(String var) {
-                    return properties.getProperty(var);
+                    return getProperty(var);
                 }
-            }.replaceValue(value);
+            };
+            return (null == key) ? replacement.replaceValue(value) : replacement.resolve(key, value);
         } catch(StackOverflowError ex) {
             throw new RuntimeException(
                     String.format("The property value '%1$s' can not resue self name.", value));
@@ -415,6 +660,22 @@ public class Configuration implements Serializable {
             }
         }
 
+        // Only one thread creates the bean of the key
+        synchronized (lockOf(key)) {
+            Object t = getObject(key);
+            if(beanClass.isInstance(t)) {
+                return (T)t;
+            }
+            return createAs(key, beanClass);
+        }
+    }
+
+    private Object lockOf(String key) {
+        return this.locks.computeIfAbsent(key, k -> new Object());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T createAs(String key, Class<T> beanClass) {
         T bean = null;
         Configuration config = getConfiguration(key, beanClass);
         if(null != config) {
@@ -424,7 +685,7 @@ public class Configuration implements Serializable {
                 if (Properties.class.equals(beanClass)) {
                     //Add 2020/02 For get direct properties
                     Properties p = new Properties();
-                    p.putAll(config.properties);
+                    p.putAll(config.store);
                     bean = beanClass.cast(p);
                 } else {
                     //System.out.println(bean + "  " + beanClass.getName() + " " + key);
@@ -440,14 +701,19 @@ public class Configuration implements Serializable {
     }
 
     private boolean hasPrefixKey(String key) {
-        String prefix = key + ".";
-        return getNameStream().anyMatch(k -> k.startsWith(prefix));
+        return this.index.hasPrefix(key + ".");
     }
 
     protected <T> T getAsBean(Class<T> beanClass, Configuration config) {
+        // Not null until the bean was created
+        Class<?> creating = null;
         try {
             T  bean;
             Class<?> implementClass = null;
+            if (listener != null) {
+                listener.creating(beanClass);
+                creating = beanClass;
+            }
             if(beanClass.isInterface() || Modifier.isAbstract( beanClass.getModifiers())) {
                 // For implement class name
                 String className = config.getString(CLASS_KEY);
@@ -459,111 +725,111 @@ public class Configuration implements Serializable {
             }
             bean = beanClass.cast( reweave(implementClass, bean, config));
             if (listener != null) {
+                creating = null;
                 listener.created(bean, beanClass);
             }
             return bean;
         } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
             throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            if (creating != null) {
+                listener.failed(creating);
+            }
         }
     }
 
     public <T> Object reweave(Class<T> beanClass, Object bean, Configuration config) {
-        Stream<Field> fields = Reflections.getFieldStream(beanClass);
-        Streams.Pair<Stream<Field>, Stream<Field>> pair = Streams.split(fields, field -> config.contains(field.getName()));
+        final BindingPlan plan = BindingPlan.of(beanClass);
         // Set self field value.
-        pair.getLeft()
-            .forEach(field -> setFieldValue(bean, field, config));
+        for (BindingPlan.FieldBinding binding : plan.fields) {
+            if (config.contains(binding.name)) {
+                setFieldValue(bean, binding, config);
+            }
+        }
 
         // Set self by setter method without fields.
-        Stream<Method> methods = Reflections.getSetterStream(beanClass, IS_NOT_STATIC_METHOD.and(IS_PUBLIC_METHOD).and(IS_SETTER_METHOD));
-        methods.forEach(method -> setPropertyValue(bean, method, config));
+        for (BindingPlan.SetterBinding binding : plan.setters) {
+            setPropertyValue(bean, binding, config);
+        }
 
         // Set member class field value.
-        pair.getRight()
-            .filter(field -> config.hasPrefixKey(field.getName()))
-            .forEach(field -> setFieldValue(bean, field, getAsBean(field.getType(), config.findConfiguration(field.getName() +".", field.getType()))));
+        for (BindingPlan.FieldBinding binding : plan.fields) {
+            if (!config.contains(binding.name) && config.hasPrefixKey(binding.name)) {
+                setFieldValue(bean, binding, getAsBean(binding.type, config.findConfiguration(binding.name +".", binding.type)));
+            }
+        }
         return bean;
     }
 
     protected Object getAsBean(Configuration config) {
+        // Not null until the bean was created
+        Class<?> creating = null;
         try {
             // For implement class name
             final String className = config.getString(CLASS_KEY);
             final Class<?> implementClass = Class.forName(className);
+            if (listener != null) {
+                listener.creating(implementClass);
+                creating = implementClass;
+            }
             final Object bean = implementClass.newInstance();
-            Stream<Field> fields = Reflections.getFieldStream(implementClass);
-            Streams.Pair<Stream<Field>, Stream<Field>> pair = Streams.split(fields, field -> config.contains(field.getName()));
-            // Set self field value.
-            pair.getLeft()
-                .forEach(field -> setFieldValue(bean, field, config));
-
-            // Set self by setter method without fields.
-            Stream<Method> methods = Reflections.getSetterStream(implementClass, IS_NOT_STATIC_METHOD.and(IS_PUBLIC_METHOD).and(IS_SETTER_METHOD));
-            methods.forEach(method -> setPropertyValue(bean, method, config));
-
-            // Set member class field value.
-            pair.getRight()
-                .filter(field -> config.hasPrefixKey(field.getName()))
-                .forEach(field -> setFieldValue(bean, field, getAsBean(field.getType(), config.findConfiguration(field.getName() +".", field.getType()))));
+            reweave(implementClass, bean, config);
             if (listener != null) {
+                creating = null;
                 listener.created(bean, implementClass);
             }
             return bean;
         } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
             throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            if (creating != null) {
+                listener.failed(creating);
+            }
         }
     }
 
-    private void setFieldValue(Object bean, Field field, Configuration config)   {
-        String data = config.getProperty(field.getName());
+    private void setFieldValue(Object bean, BindingPlan.FieldBinding binding, Configuration config)   {
+        String data = config.getProperty(binding.name);
         Object value = null;
         if(VariablesReplacement.hasVariables(data)) {
-            value = getReference(data, field);
+            value = getReference(data, binding.field);
         } else {
-            value = this.converter.convert(data, field.getType());
+            value = binding.convert(data, this.converter);
         }
         if(null != value) {
-            setFieldValue(bean, field, value);
+            setFieldValue(bean, binding, value);
         }
     }
 
-    private void setFieldValue(Object bean, Field field, Object value)   {
-        //First find setter method to set field value.
-        Method setter =Reflections.getSetter(bean.getClass(), field);
-        if (setter != null) {
-            try {
-                setter.invoke(bean, value);
-            } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
-                LOGGER.log(Level.SEVERE,
-                        String.format("%s#%s('%s') failed - %s",
-                                bean.getClass().getSimpleName(),
-                                setter.getName(), String.valueOf(value), e.getMessage()), e);
-                throw new RuntimeException(e.getMessage(), e);
-            }
+    private void setFieldValue(Object bean, BindingPlan.FieldBinding binding, Object value)   {
+        if(null == value) {
             return;
         }
-        field.setAccessible(true);
-        if(null != value) {
-            try {
-                field.set(bean, value);
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                LOGGER.log(Level.SEVERE,
-                        String.format("%s.%s = '%s' failed! %s",
+        //Inject by setter method first, or set field value.
+        try {
+            binding.injector.inject(bean, value);
+        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
+            if (binding.setter != null) {
+                LOGGER.log(Level.SEVERE, e,
+                        "%s#%s('%s') failed - %s",
+                                bean.getClass().getSimpleName(),
+                                binding.setter.getName(), String.valueOf(value), e.getMessage());
+            } else {
+                LOGGER.log(Level.SEVERE, e,
+                        "%s.%s = '%s' failed! %s",
                                 bean.getClass().getSimpleName(),
-                                field.getName(), String.valueOf(value), e.getMessage()), e);
-                throw new RuntimeException(e.getMessage(), e);
+                                binding.name, String.valueOf(value), e.getMessage());
             }
+            throw new RuntimeException(e.getMessage(), e);
         }
     }
 
-    private void setPropertyValue(Object bean, Method setter, Configuration config) {
+    private void setPropertyValue(Object bean, BindingPlan.SetterBinding binding, Configuration config) {
         try {
-            char c = Character.toLowerCase(setter.getName().charAt(3));
-            String fieldName = new StringBuilder().append(c).append(setter.getName().substring(4)).toString();
-            String value = config.getString(fieldName);
+            String value = config.getString(binding.name);
             if(null != value) {
-                Object parameter = this.converter.convert(value, setter.getParameterTypes()[0]);
-                setter.invoke(bean, parameter);
+                Object parameter = binding.convert(value, this.converter);
+                binding.injector.inject(bean, parameter);
             }
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -573,12 +839,12 @@ public class Configuration implements Serializable {
     private void setLoggingLevel(Configuration loggerConfig) {
         try {
             final Configuration levels = loggerConfig.getConfiguration("level");
-            final Properties levelProp = (levels != null) ? levels.properties : new Properties();
+            final Properties levelProp = (levels != null) ? levels.toProperties() : new Properties();
             final Configuration handlers = loggerConfig.getConfiguration("handler");
-            final Properties handlerProp = (handlers != null) ? handlers.properties : new Properties();
+            final Properties handlerProp = (handlers != null) ? handlers.toProperties() : new Properties();
             LevelableHandler.setupLogger(levelProp, handlerProp);
         } catch (RuntimeException e) {
-            LOGGER.log(Level.WARNING, String.format("Java logger configuration error : %s.", e.getMessage()), e);
+            LOGGER.log(Level.WARNING, e, "Java logger configuration error : %s.", e.getMessage());
         }
     }
 
@@ -601,31 +867,300 @@ public class Configuration implements Serializable {
     }
 
     public void append(String key, String value) {
-        this.properties.setProperty(key, value);
+        this.store.put(key, value);
+        this.index.add(key);
+        this.sources.put(key, value);
+        this.appended.add(key);
+        invalidate();
     }
 
     public void append(Properties appends) {
-        this.properties.putAll(appends);
+        for (Map.Entry<Object, Object> entry : appends.entrySet()) {
+            final String key = entry.getKey().toString();
+            this.store.put(key, entry.getValue());
+            if (entry.getValue() instanceof String) {
+                this.index.add(key);
+                this.sources.put(key, (String)entry.getValue());
+            } else {
+                this.index.remove(key);
+            }
+            this.appended.add(key);
+        }
+        invalidate();
+    }
+
+    /**
+     * Replace the properties by the reloaded ones.
+     * The reloaded values are compared with the source values, also of the keys replaced by cached objects.
+     * Only the cached beans and sub configurations depending on the changed keys are invalidated,
+     * a dependency is found by the key prefix or the '${name}' references of the values.
+     * An invalidated key is restored to its source value.
+     * The appended keys are not a part of the resource, they are kept and not overwritten by the reload.
+     *
+     * @param fresh The reloaded properties.
+     * @return The key level difference.
+     */
+    public synchronized Diff reload(Properties fresh) {
+        final Diff diff = new Diff();
+        for (String key : fresh.stringPropertyNames()) {
+            if (this.appended.contains(key)) {
+                continue;
+            }
+            final String old = this.sources.get(key);
+            if (null == old) {
+                diff.added.add(key);
+            } else if (!old.equals(fresh.getProperty(key))) {
+                diff.changed.add(key);
+            }
+        }
+        for (String key : this.sources.keySet()) {
+            if (!fresh.containsKey(key) && !this.appended.contains(key)) {
+                diff.removed.add(key);
+            }
+        }
+        if (diff.isEmpty()) {
+            return diff;
+        }
+
+        for (String key : diff.removed) {
+            if (!(this.store.remove(key) instanceof String)) {
+                diff.invalidated.add(key);
+            }
+            this.index.remove(key);
+            this.sources.remove(key);
+        }
+        for (String key : diff.added) {
+            this.store.put(key, fresh.getProperty(key));
+            this.index.add(key);
+            this.sources.put(key, fresh.getProperty(key));
+        }
+        for (String key : diff.changed) {
+            final String value = fresh.getProperty(key);
+            if (!(this.store.put(key, value) instanceof String)) {
+                diff.invalidated.add(key);
+            }
+            this.index.add(key);
+            this.sources.put(key, value);
+        }
+        invalidate();
+
+        // Expand the affected keys by the values referring them
+        final NavigableSet<String> affected = new TreeSet<>();
+        affected.addAll(diff.added);
+        affected.addAll(diff.changed);
+        affected.addAll(diff.removed);
+        boolean expanded = true;
+        while (expanded) {
+            expanded = false;
+            for (Map.Entry<String, String> entry : this.sources.entrySet()) {
+                final String key = entry.getKey();
+                if (!affected.contains(key) && refersTo(entry.getValue(), affected)) {
+                    affected.add(key);
+                    expanded = true;
+                }
+            }
+        }
+
+        // Invalidate the cached beans and sub configurations
+        for (Map.Entry<String, Object> entry : this.store.entrySet()) {
+            final String key = entry.getKey();
+            if (entry.getValue() instanceof String) {
+                continue;
+            }
+            final boolean stale = key.endsWith(".")
+                    ? hasPrefix(affected, key)
+                    : affected.contains(key) || hasPrefix(affected, key + ".");
+            if (stale) {
+                final String source = this.sources.get(key);
+                if (null == source) {
+                    this.store.remove(key);
+                } else {
+                    // Referred again by the source value
+                    this.store.put(key, source);
+                    this.index.add(key);
+                }
+                diff.invalidated.add(key);
+            }
+        }
+        LOGGER.fine("[BOOT] Reloaded configuration %s", diff);
+        return diff;
+    }
+
+    private static boolean hasPrefix(NavigableSet<String> keys, String prefix) {
+        final String key = keys.ceiling(prefix);
+        return key != null && key.startsWith(prefix);
+    }
+
+    private static boolean refersTo(String value, NavigableSet<String> keys) {
+        if (null == value) {
+            return false;
+        }
+        int begin = value.indexOf(VariablesReplacement.DOLLAR_BRACKET_START);
+        while (begin >= 0) {
+            int end = begin + 2;
+            while (end < value.length()
+                    && value.charAt(end) != VariablesReplacement.BRACKET_END
+                    && value.charAt(end) != VariablesReplacement.DOLLAR) {
+                end++;
+            }
+            final String name = value.substring(begin + 2, end);
+            if (!name.isEmpty() && (keys.contains(name) || hasPrefix(keys, name + "."))) {
+                return true;
+            }
+            begin = value.indexOf(VariablesReplacement.DOLLAR_BRACKET_START, end);
+        }
+        return false;
+    }
+
+    /**
+     * The key level difference of a reloaded configuration.
+     */
+    public static final class Diff implements Serializable {
+        /** serialVersionUID */
+        private static final long serialVersionUID = 1L;
+        private final Set<String> added = new TreeSet<>();
+        private final Set<String> changed = new TreeSet<>();
+        private final Set<String> removed = new TreeSet<>();
+        private final Set<String> invalidated = new TreeSet<>();
+
+        public Set<String> getAdded() {
+            return added;
+        }
+        public Set<String> getChanged() {
+            return changed;
+        }
+        public Set<String> getRemoved() {
+            return removed;
+        }
+        /** The keys of the cached beans and sub configurations have been dropped */
+        public Set<String> getInvalidated() {
+            return invalidated;
+        }
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("added:%s changed:%s removed:%s invalidated:%s", added, changed, removed, invalidated);
+        }
     }
 
     public Set<String> remains() {
         Set<String> names = new HashSet<>();
         Set<String> keys = findUnimplements();
         for (String key :  keys) {
-            final String className = getProperty(key + ".class");
-            try {
-                getAs(key, Class.forName(className));
+            if (remain(key)) {
+                names.add(key);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Create the remains beans in parallel.
+     * A bean is created after the beans that it references by '${ref}',
+     * the beans on a cycle reference are created at last on the caller thread.
+     *
+     * @param pool The pool to create beans
+     * @return The keys of the created beans
+     */
+    public Set<String> remains(ForkJoinPool pool) {
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        final DependencyGraph graph = getDependencyGraph(findUnimplements());
+        final Map<String, CompletableFuture<Void>> tasks = new HashMap<>();
+        for (String key : graph.order()) {
+            final CompletableFuture<?>[] dependencies = graph.dependencies(key).stream()
+                    .map(tasks::get)
+                    .toArray(CompletableFuture<?>[]::new);
+            tasks.put(key, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                if (remain(key)) {
+                    names.add(key);
+                }
+            }, pool));
+        }
+        try {
+            CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture<?>[tasks.size()])).join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+        for (String key : graph.cycles()) {
+            if (remain(key)) {
                 names.add(key);
-            } catch (ClassNotFoundException e) {
-                LOGGER.log(Level.WARNING,
-                        String.format("Remains '%s' failed. Not found '%s' class.", key, className), e);
             }
         }
         return names;
     }
 
+    private boolean remain(String key) {
+        final String className = getProperty(key + ".class");
+        try {
+            getAs(key, Class.forName(className));
+            return true;
+        } catch (ClassNotFoundException e) {
+            LOGGER.log(Level.WARNING, e,
+                    "Remains '%s' failed. Not found '%s' class.", key, className);
+            return false;
+        }
+    }
+
+    DependencyGraph getDependencyGraph(Set<String> beans) {
+        final DependencyGraph graph = new DependencyGraph();
+        for (String bean : beans) {
+            final Set<String> dependencies = new HashSet<>();
+            final Set<String> visited = new HashSet<>();
+            visited.add(bean);
+            getNameStream(bean + ".")
+                .forEach(name -> collectReferences(getProperty(name), beans, visited, dependencies));
+            graph.add(bean, dependencies);
+        }
+        return graph;
+    }
+
+    private void collectReferences(String value, Set<String> beans, Set<String> visited, Set<String> dependencies) {
+        if (!VariablesReplacement.hasVariables(value)) {
+            return;
+        }
+        final VariablesReplacement replacement = new VariablesReplacement() {
+            @Override
+            String replace(String var) {
+                return getProperty(var);
+            }
+        };
+        int begin = value.indexOf(VariablesReplacement.DOLLAR_BRACKET_START);
+        while (begin >= 0) {
+            final int end = VariablesReplacement.closing(value, begin);
+            if (end < 0) {
+                break;
+            }
+            String name = value.substring(begin + 2, end);
+            if (VariablesReplacement.hasVariables(name)) {
+                name = replacement.replaceValue(name);
+            }
+            if (null != name && visited.add(name)) {
+                if (beans.contains(name)) {
+                    dependencies.add(name);
+                } else {
+                    // Follow a reference list or a sub configuration without class
+                    collectReferences(getProperty(name), beans, visited, dependencies);
+                    getNameStream(name + ".")
+                        .forEach(k -> collectReferences(getProperty(k), beans, visited, dependencies));
+                }
+            }
+            begin = value.indexOf(VariablesReplacement.DOLLAR_BRACKET_START, end + 1);
+        }
+    }
+
     public void destroy() {
-        properties.clear();
+        store.clear();
+        index.clear();
+        sources.clear();
+        appended.clear();
+        invalidate();
     }
 
     @Override
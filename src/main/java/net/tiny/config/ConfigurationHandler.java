@@ -1,6 +1,7 @@
 package net.tiny.config;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,16 +12,31 @@ import java.io.Reader;
 import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.logging.Logger;
+import java.util.logging.Level;
+
+import net.tiny.logging.LazyLogger;
 
 public final class ConfigurationHandler implements ContextHandler {
 
-    private static Logger LOGGER = Logger.getLogger(ConfigurationHandler.class.getName());
+    private static LazyLogger LOGGER = LazyLogger.getLogger(ConfigurationHandler.class.getName());
 
     private final static char COMMENT_EXCITE = '#';
     private final static char DOLLAR_SYMBOL = '$';
@@ -31,10 +47,15 @@ public final class ConfigurationHandler implements ContextHandler {
     private final static char QUOTE = '\'';
     private final static char DOUBLE_QUOTE = '"';
     private final static String INCLUDE = "include";
+    private final static String SNAPSHOT = "SNAPSHOT";
+    private final static long QUIET_PERIOD = 100L;
 
     private Listener listener = null;
     private String resource;
     private Configuration configuration;
+    /** The local files of the resource and its includes */
+    private volatile Set<Path> sources = Collections.emptySet();
+    private Watcher watcher;
 
     @Override
     public Listener getListener() {
@@ -115,8 +136,20 @@ public final class ConfigurationHandler implements ContextHandler {
         URL url = toURL(resource);
         try {
             Type type = guessType(resource);
-            parse(url.openStream(), type, logging);
-        } catch(IOException ex) {
+            if ("file".equals(url.getProtocol())) {
+                final Path path = Paths.get(url.toURI());
+                // Precompiled snapshot is used if the source has not been changed
+                final Properties snapshot = ConfigurationSnapshot.load(path);
+                if (snapshot != null) {
+                    parsed(snapshot, SNAPSHOT, logging);
+                } else {
+                    // Local file is loaded by memory-mapped
+                    parsed(PropertiesLoader.load(path, type, null), type.name(), logging);
+                }
+            } else {
+                parse(url.openStream(), type, logging);
+            }
+        } catch(IOException | URISyntaxException ex) {
             throw new RuntimeException(ex.getMessage(), ex);
         }
     }
@@ -130,12 +163,175 @@ public final class ConfigurationHandler implements ContextHandler {
     public void parse(InputStream in, Type type, boolean logging) {
         //Properties properties = load(in, type);
         Properties properties = PropertiesLoader.load(in, type, null);
+        parsed(properties, type.name(), logging);
+        //properties.list(System.out); //TODO
+    }
+
+    private void parsed(Properties properties, String type, boolean logging) {
         this.configuration = new Configuration(properties, listener, logging);
         if (listener != null) {
-            listener.parsed(type.name(), resource, properties.size());
+            listener.parsed(type, resource, properties.size());
         }
-        //properties.list(System.out); //TODO
     }
+    /**
+     * Re-parse the resource and its includes, apply the changed keys to the live configuration.
+     * The listener is notified only when some keys were changed.
+     *
+     * @return The key level difference.
+     */
+    public synchronized Configuration.Diff reload() {
+        final URL url = toURL(resource);
+        final Type type = guessType(resource);
+        final Set<Path> files = new HashSet<>();
+        // Collect the local included files
+        final PropertiesSupport.Listener includes = (method, key, value) -> {
+            if (INCLUDE.equals(method) && value.startsWith("file:")) {
+                try {
+                    files.add(Paths.get(new URL(value).toURI()).toAbsolutePath().normalize());
+                } catch (MalformedURLException | URISyntaxException ex) {
+                    LOGGER.warning("[BOOT] Can not watch included '%s' - %s", value, ex.getMessage());
+                }
+            }
+        };
+        final Properties properties;
+        try {
+            if ("file".equals(url.getProtocol())) {
+                final Path path = Paths.get(url.toURI()).toAbsolutePath().normalize();
+                files.add(path);
+                properties = PropertiesLoader.load(path, type, includes);
+            } else {
+                properties = PropertiesLoader.load(url.openStream(), type, includes);
+            }
+        } catch(IOException | URISyntaxException ex) {
+            throw new RuntimeException(ex.getMessage(), ex);
+        }
+        this.sources = files;
+        if (null == this.configuration) {
+            parsed(properties, type.name(), false);
+            return new Configuration.Diff();
+        }
+        final Configuration.Diff diff = this.configuration.reload(properties);
+        if (!diff.isEmpty() && listener != null) {
+            listener.reloaded(resource, diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Start watching the local files of the resource and its includes.
+     * A change of any file re-parses the resource, because the included keys are merged into it.
+     */
+    public synchronized void watch() {
+        if (null != this.watcher) {
+            return;
+        }
+        reload();
+        try {
+            this.watcher = new Watcher();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex.getMessage(), ex);
+        }
+        this.watcher.register(this.sources);
+        final Thread thread = new Thread(this.watcher, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void unwatch() {
+        if (null != this.watcher) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    public synchronized boolean isWatching() {
+        return null != this.watcher;
+    }
+
+    private final class Watcher implements Runnable, Closeable {
+        private final WatchService service;
+        private final Map<WatchKey, Path> directories = new HashMap<>();
+
+        Watcher() throws IOException {
+            this.service = FileSystems.getDefault().newWatchService();
+        }
+
+        void register(Set<Path> files) {
+            for (Path file : files) {
+                final Path dir = file.getParent();
+                if (null == dir || directories.containsValue(dir)) {
+                    continue;
+                }
+                try {
+                    directories.put(dir.register(service,
+                            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+                } catch (IOException ex) {
+                    LOGGER.warning("[BOOT] Can not watch '%s' - %s", dir, ex.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    boolean modified = changed(key);
+                    // Wait for the editor finishing writes, the events of one save come in a burst
+                    Thread.sleep(QUIET_PERIOD);
+                    while ((key = service.poll()) != null) {
+                        modified |= changed(key);
+                    }
+                    if (modified) {
+                        reloaded();
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                // Closed
+            }
+        }
+
+        private boolean changed(WatchKey key) {
+            final Path dir = directories.get(key);
+            boolean modified = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    modified = true;
+                } else if (null != dir && sources.contains(dir.resolve((Path)event.context()))) {
+                    modified = true;
+                }
+            }
+            key.reset();
+            return modified;
+        }
+
+        private void reloaded() {
+            synchronized (ConfigurationHandler.this) {
+                if (watcher != this) {
+                    return;
+                }
+                try {
+                    reload();
+                    // The includes may be changed
+                    register(sources);
+                } catch (RuntimeException ex) {
+                    // Keep the live configuration, a half-written file is reloaded by the next event
+                    LOGGER.log(Level.WARNING, ex, "[BOOT] Can not reload '%s' - %s",
+                            resource, ex.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                LOGGER.warning("[BOOT] Can not close watcher of '%s' - %s", resource, ex.getMessage());
+            }
+        }
+    }
+
 /*
     protected Properties load(InputStream in, Type type) {
         try {
@@ -185,7 +381,7 @@ public final class ConfigurationHandler implements ContextHandler {
                 res = href.substring(href.indexOf("(")+1, href.lastIndexOf(")"));
                 url = new URL(res);
             } else {
-                LOGGER.warning(String.format("Unknow resource '%1$s'", href));
+                LOGGER.warning("Unknow resource '%1$s'", href);
                 return;
             }
             Type type = guessType(res);
@@ -464,7 +660,7 @@ public final class ConfigurationHandler implements ContextHandler {
             pos = line.indexOf(COLON); //:
             if(pos == -1) {
                 //
-                LOGGER.warning(String.format("Illegal yaml format whitout colon. %d: '%s'", lineReader.getLineNumber(), line));
+                LOGGER.warning("Illegal yaml format whitout colon. %d: '%s'", lineReader.getLineNumber(), line);
                 continue;
             }
 
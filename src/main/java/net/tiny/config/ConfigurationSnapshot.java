@@ -0,0 +1,280 @@
+package net.tiny.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import net.tiny.logging.LazyLogger;
+
+/**
+ * The precompiled binary snapshot of a configuration file.
+ * <p>
+ * Usage: java net.tiny.config.ConfigurationSnapshot application-{profile}.yml [snapshot]
+ * </p>
+ * The snapshot is saved as '{resource}.snapshot' by default,
+ * {@link ConfigurationHandler} loads it instead of parsing the source when the checksum of source is matched.
+ *
+ * <pre>
+ * magic    : int 'TCFS'
+ * version  : int
+ * source   : long CRC32 of the source file
+ * includes : int count, { int length, UTF-8 URL, long CRC32 } ...
+ * strings  : int count, { int length, UTF-8 bytes } ...
+ * index    : int count, { int key, int value } ... sorted by key
+ * checksum : long CRC32 of the above
+ * </pre>
+ * The snapshot is used only if the source and all its included resources are not changed.
+ * A source including a remote 'url(...)' resource is not compiled.
+ */
+public final class ConfigurationSnapshot {
+
+    private static final LazyLogger LOGGER = LazyLogger.getLogger(ConfigurationSnapshot.class.getName());
+
+    public static final String SUFFIX = ".snapshot";
+    static final int MAGIC = 0x54434653; // 'TCFS'
+    static final int VERSION = 2;
+
+    private ConfigurationSnapshot() {}
+
+    public static Path snapshotOf(Path source) {
+        return source.resolveSibling(source.getFileName().toString() + SUFFIX);
+    }
+
+    /**
+     * CRC32 checksum of the source file.
+     */
+    public static long checksum(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            final CRC32 crc = new CRC32();
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * CRC32 checksum of an included resource, a local file or an entry of a jar.
+     */
+    static long checksum(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return checksum(Paths.get(url.toURI()));
+            } catch (URISyntaxException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+        if (!"jar".equals(url.getProtocol())) {
+            throw new IOException(String.format("Can not check the included resource '%s'", url));
+        }
+        final URLConnection connection = url.openConnection();
+        // The cached jar file is not reopened after it was replaced
+        connection.setUseCaches(false);
+        try (InputStream in = connection.getInputStream()) {
+            final CRC32 crc = new CRC32();
+            final byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, length);
+            }
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Parse the source file and write its flattened properties to the snapshot.
+     */
+    public static Path compile(Path source, Path snapshot) throws IOException {
+        final List<String> urls = new ArrayList<>();
+        final Properties properties = PropertiesLoader.load(source, PropertiesLoader.guessType(source.toString()),
+                (method, key, value) -> {
+                    if (PropertiesLoader.INCLUDE.equals(method)) {
+                        urls.add(value);
+                    }
+                });
+        final Map<String, Long> includes = new LinkedHashMap<>();
+        for (String url : urls) {
+            includes.put(url, checksum(new URL(url)));
+        }
+        write(properties, checksum(source), includes, snapshot);
+        return snapshot;
+    }
+
+    public static void write(Properties properties, long sourceChecksum, Path snapshot) throws IOException {
+        write(properties, sourceChecksum, Collections.emptyMap(), snapshot);
+    }
+
+    /**
+     * @param includes The URLs of the included resources and their checksums
+     */
+    public static void write(Properties properties, long sourceChecksum, Map<String, Long> includes, Path snapshot)
+            throws IOException {
+        final TreeSet<String> keys = new TreeSet<>(properties.stringPropertyNames());
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> table = new HashMap<>();
+        final int[] index = new int[keys.size() * 2];
+        int i = 0;
+        for (String key : keys) {
+            index[i++] = intern(key, strings, table);
+            index[i++] = intern(properties.getProperty(key), strings, table);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceChecksum);
+        out.writeInt(includes.size());
+        for (Map.Entry<String, Long> include : includes.entrySet()) {
+            final byte[] data = include.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(data.length);
+            out.write(data);
+            out.writeLong(include.getValue());
+        }
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            final byte[] data = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(data.length);
+            out.write(data);
+        }
+        out.writeInt(keys.size());
+        for (int n : index) {
+            out.writeInt(n);
+        }
+        out.flush();
+        final CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        // Replace the snapshot atomically, a reader never sees a partial file
+        final Path temp = Files.createTempFile(snapshot.toAbsolutePath().getParent(), "config", SUFFIX);
+        try {
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int intern(String value, List<String> strings, Map<String, Integer> table) {
+        Integer n = table.get(value);
+        if (n == null) {
+            n = strings.size();
+            strings.add(value);
+            table.put(value, n);
+        }
+        return n;
+    }
+
+    /**
+     * Read the memory-mapped snapshot.
+     *
+     * @return The properties, or null if the snapshot is broken or older than the source or its includes.
+     */
+    public static Properties read(Path snapshot, long sourceChecksum) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < 32L) {
+                return null;
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceChecksum) {
+                return null;
+            }
+            final ByteBuffer payload = buffer.duplicate();
+            ((Buffer)payload).position(0);
+            ((Buffer)payload).limit((int)size - 8);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (buffer.getLong((int)size - 8) != crc.getValue()) {
+                LOGGER.warning("[BOOT] Broken configuration snapshot '%s'", snapshot);
+                return null;
+            }
+            byte[] data = new byte[256];
+            final int includes = buffer.getInt();
+            for (int i = 0; i < includes; i++) {
+                final int length = buffer.getInt();
+                if (length > data.length) {
+                    data = new byte[Math.max(length, data.length << 1)];
+                }
+                buffer.get(data, 0, length);
+                final String url = new String(data, 0, length, StandardCharsets.UTF_8);
+                if (buffer.getLong() != checksum(new URL(url))) {
+                    LOGGER.fine("[BOOT] The included '%s' of snapshot '%s' was changed", url, snapshot);
+                    return null;
+                }
+            }
+            final String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                final int length = buffer.getInt();
+                if (length > data.length) {
+                    data = new byte[Math.max(length, data.length << 1)];
+                }
+                buffer.get(data, 0, length);
+                strings[i] = new String(data, 0, length, StandardCharsets.UTF_8);
+            }
+            final int count = buffer.getInt();
+            final Properties properties = new Properties();
+            for (int i = 0; i < count; i++) {
+                properties.setProperty(strings[buffer.getInt()], strings[buffer.getInt()]);
+            }
+            return properties;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, ex, "[BOOT] Can not read configuration snapshot '%s' - %s",
+                    snapshot, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Load the snapshot of the source if it is valid.
+     *
+     * @return The properties, or null if not found a valid snapshot.
+     */
+    public static Properties load(Path source) {
+        final Path snapshot = snapshotOf(source);
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        try {
+            return read(snapshot, checksum(source));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, ex, "[BOOT] Can not check configuration source '%s' - %s",
+                    source, ex.getMessage());
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java net.tiny.config.ConfigurationSnapshot source [snapshot]");
+            System.exit(1);
+        }
+        final Path source = Paths.get(args[0]);
+        final Path snapshot = args.length > 1 ? Paths.get(args[1]) : snapshotOf(source);
+        compile(source, snapshot);
+        System.out.println(String.format("Compiled '%s' to '%s' (%d bytes)", source, snapshot, Files.size(snapshot)));
+    }
+}
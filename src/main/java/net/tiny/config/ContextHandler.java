@@ -5,9 +5,15 @@ import java.io.InputStream;
 public interface ContextHandler {
 
     interface Listener {
+        /** Called before the bean is instantiated, then {@link #created(Object, Class)} on the same thread */
+        default void creating(Class<?> beanClass) {}
+        /** Called instead of {@link #created(Object, Class)} if the creation failed after {@link #creating(Class)} */
+        default void failed(Class<?> beanClass) {}
         void created(Object bean, Class<?> beanClass);
         void parsed(String type, String resource, int size);
         void cached(String name, Object value, boolean config);
+        /** Called after the watched resource was reloaded and some keys were changed */
+        default void reloaded(String resource, Configuration.Diff diff) {}
     }
 
     enum Type {
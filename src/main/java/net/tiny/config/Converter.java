@@ -12,10 +12,10 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -23,6 +23,10 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -31,8 +35,6 @@ public class Converter implements Serializable {
     /** serialVersionUID */
     private static final long serialVersionUID = 1L;
 
-    static final String LIST_REGEX = "[ ]*,[ ]*";
-
     @FunctionalInterface
     public static interface StringValueConverter<T> {
         T convert(String value);
@@ -52,58 +54,193 @@ public class Converter implements Serializable {
     static final StringValueConverter<Long> LONG = Long::valueOf;
     static final StringValueConverter<Float> FLOAT = Float::valueOf;
     static final StringValueConverter<Double> DOUBLE = Double::valueOf;
+    static final ToIntFunction<String> INT = Integer::parseInt;
+    static final ToLongFunction<String> LONG_VALUE = Long::parseLong;
+    static final ToDoubleFunction<String> DOUBLE_VALUE = Double::parseDouble;
+    static final Predicate<String> BOOLEAN_VALUE = BOOLEAN::convert;
     static final StringValueConverter<BigInteger> BIG_INTEGER = BigInteger::new;
     static final StringValueConverter<BigDecimal> BIG_DECIMAL = BigDecimal::new;
 
     private static final String LOCAL_DATE_FORMATTER = "yyyy/MM/dd";
-
-
+    private static final String LOCAL_DATETIME_FORMATTER = "yyyy/MM/dd HH:mm:ss";
+    private static final String GMT_DATETIME_FORMATTER = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    // The immutable formatters are shared by threads
+    static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(LOCAL_DATE_FORMATTER);
+    static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern(LOCAL_DATETIME_FORMATTER);
+    static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /**
+     * The format of a date time value is sniffed by the positions of the separators,
+     * the canonical values are built from their digits directly.
+     * The others are parsed by the formatters, no exception is used to try the next format.
+     */
     static final StringValueConverter<Date> DATE = value -> {
+        final LocalDate date = toLocalDate(value, '/');
+        if (date != null) {
+            return new Date(date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        // Lenient legacy format, SimpleDateFormat is not thread-safe
         try {
-            return  new SimpleDateFormat(LOCAL_DATE_FORMATTER).parse(value);
+            return new SimpleDateFormat(LOCAL_DATE_FORMATTER).parse(value);
         } catch (ParseException ex) {
             throw new RuntimeException("Convert '" + value + "' error :" + ex.getMessage(), ex);
         }
     };
 
     static final StringValueConverter<LocalDate> LOCAL_DATE = value -> {
-        try {
-            return LocalDate.parse(value, DateTimeFormatter.ofPattern(LOCAL_DATE_FORMATTER));
-        } catch (DateTimeParseException e) {
-            return LocalDate.parse(value, DateTimeFormatter.ISO_LOCAL_DATE);
+        final boolean slash = value.length() > 4 && value.charAt(4) == '/';
+        if (value.length() == 10) {
+            final LocalDate date = toLocalDate(value, slash ? '/' : '-');
+            if (date != null) {
+                return date;
+            }
         }
+        return LocalDate.parse(value, slash ? DATE_FORMATTER : DateTimeFormatter.ISO_LOCAL_DATE);
     };
 
-    private static final String LOCAL_DATETIME_FORMATTER = "yyyy/MM/dd HH:mm:ss";
+    static final StringValueConverter<LocalDateTime> LOCAL_DATETIME = value -> {
+        final boolean slash = value.length() > 4 && value.charAt(4) == '/';
+        if (value.length() == 19) {
+            final LocalDateTime datetime = toLocalDateTime(value, slash ? '/' : '-', slash ? ' ' : 'T');
+            if (datetime != null) {
+                return datetime;
+            }
+        }
+        return LocalDateTime.parse(value, slash ? DATETIME_FORMATTER : DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    };
 
+    static final StringValueConverter<LocalTime> LOCAL_TIME = value -> {
+        if (value.length() == 8) {
+            final LocalTime time = toLocalTime(value, 0);
+            if (time != null) {
+                return time;
+            }
+        }
+        return LocalTime.parse(value);
+    };
 
-    static final StringValueConverter<LocalDateTime> LOCAL_DATETIME = value -> {
+    static final StringValueConverter<java.sql.Timestamp> TIMESTAMP = value -> {
+        if (isLong(value)) {
+            return new java.sql.Timestamp(Long.parseLong(value));
+        }
+        // 'yyyy-MM-ddTHH:mm:ss[.SSS]Z'
+        final int length = value.length();
+        if (length >= 20 && value.charAt(length - 1) == 'Z') {
+            final LocalDateTime datetime = toLocalDateTime(value, '-', 'T');
+            final int nanos = (length == 20) ? 0 : fraction(value, 19, length - 1);
+            if (datetime != null && nanos >= 0) {
+                final java.sql.Timestamp timestamp =
+                        new java.sql.Timestamp(datetime.toEpochSecond(ZoneOffset.UTC) * 1000L);
+                timestamp.setNanos(nanos);
+                return timestamp;
+            }
+        }
         try {
-            return LocalDateTime.parse(value, DateTimeFormatter.ofPattern(LOCAL_DATETIME_FORMATTER));
-        } catch (DateTimeParseException e) {
-            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            final SimpleDateFormat format = new SimpleDateFormat(GMT_DATETIME_FORMATTER);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            return new java.sql.Timestamp(format.parse(value).getTime());
+        } catch (ParseException ex) {
+            return new java.sql.Timestamp(System.currentTimeMillis());
         }
     };
 
-    static final StringValueConverter<LocalTime> LOCAL_TIME = LocalTime::parse;
+    /**
+     * Build a date from 'yyyy?MM?dd' at the head of the value.
+     *
+     * @return The date, or null if the value is not the format or not a valid date.
+     */
+    static LocalDate toLocalDate(String value, char separator) {
+        if (value.length() < 10 || value.charAt(4) != separator || value.charAt(7) != separator) {
+            return null;
+        }
+        final int year = digits(value, 0, 4);
+        final int month = digits(value, 5, 7);
+        final int day = digits(value, 8, 10);
+        // Before the Gregorian cutover, the legacy calendar is different
+        if (year < 1583 || month < 1 || month > 12 || day < 1 || day > 28 && day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
 
+    static LocalDateTime toLocalDateTime(String value, char separator, char delimiter) {
+        if (value.length() < 19 || value.charAt(10) != delimiter) {
+            return null;
+        }
+        final LocalDate date = toLocalDate(value, separator);
+        final LocalTime time = toLocalTime(value, 11);
+        return (date != null && time != null) ? LocalDateTime.of(date, time) : null;
+    }
 
-    static final SimpleDateFormat GMT_FORMATTER = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-    static {
-        GMT_FORMATTER.setTimeZone(TimeZone.getTimeZone("GMT"));
+    /**
+     * Build a time from 'HH:mm:ss' at the offset of the value.
+     */
+    static LocalTime toLocalTime(String value, int offset) {
+        if (value.charAt(offset + 2) != ':' || value.charAt(offset + 5) != ':') {
+            return null;
+        }
+        final int hour = digits(value, offset, offset + 2);
+        final int minute = digits(value, offset + 3, offset + 5);
+        final int second = digits(value, offset + 6, offset + 8);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second);
     }
-    static final StringValueConverter<java.sql.Timestamp> TIMESTAMP = value -> {
-        try {
-            long t = Long.parseLong(value);
-            return new java.sql.Timestamp(t);
-        } catch (NumberFormatException e) {
-            try {
-                return new java.sql.Timestamp(GMT_FORMATTER.parse(value).getTime());
-            } catch (ParseException e1) {
-                return new java.sql.Timestamp(System.currentTimeMillis());
+
+    private static int lengthOfMonth(int year, int month) {
+        return (month == 2) ? (java.time.Year.isLeap(year) ? 29 : 28) : (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    /**
+     * The decimal digits in the range, or -1 if a char is not a digit.
+     */
+    private static int digits(String value, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
             }
+            number = number * 10 + digit;
         }
-    };
+        return number;
+    }
+
+    /**
+     * The nanoseconds of '.SSS' in the range, or -1 if it is not a fraction.
+     */
+    private static int fraction(String value, int from, int to) {
+        final int length = to - from - 1;
+        if (length < 1 || length > 9 || value.charAt(from) != '.') {
+            return -1;
+        }
+        final int digits = digits(value, from + 1, to);
+        if (digits < 0) {
+            return -1;
+        }
+        int nanos = digits;
+        for (int i = length; i < 9; i++) {
+            nanos *= 10;
+        }
+        return nanos;
+    }
+
+    private static boolean isLong(String value) {
+        final int length = value.length();
+        int i = (length > 1 && value.charAt(0) == '-') ? 1 : 0;
+        if (length == 0 || length - i > 18) {
+            return false;
+        }
+        for (; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 
     static final StringValueConverter<Level> LOGGER_LEVEL = Level::parse;
     static final StringValueConverter<File> FILE = value -> {
@@ -139,127 +276,285 @@ public class Converter implements Serializable {
         return v -> Enum.valueOf(type, v);
     }
 
-    static final char[] LEFT_LIST_PREFIX  = new char[] {'{','(','[','<'};
-    static final char[] RIGHT_LIST_SUFFIX = new char[] {'}',')',']','>'};
-    static final int prefix(char c) {
-        for (int i=0; i<LEFT_LIST_PREFIX.length; i++) {
-            if (c == LEFT_LIST_PREFIX[i])
-                return i;
-        }
-        return -1;
-    }
-
-    static final List<String> merageValues(String[] values, int index) {
-        if(index == -1)
-            return Arrays.asList(values);
-        List<String> list = new ArrayList<>();
-        char suffix = RIGHT_LIST_SUFFIX[index];
-        StringBuilder sb = new StringBuilder();
-        for (int i=0; i<values.length; i++) {
-            String v = values[i];
-            if (v.charAt(v.length()-1) == suffix) { //matching last char
-                sb.append(v);
-                list.add(sb.toString());
-                sb.setLength(0);
-            } else {
-                sb.append(v);
-            }
-        }
-        return list;
-
-    }
-
     static final StringValueConverter<List<String>> LIST = value -> {
-        /*
-        if (value.charAt(0) == '[' && value.charAt(value.length()-1) == ']') {
-            value = value.substring(1, value.length()-1);
-        }
-        */
-        String[] values = value.split(LIST_REGEX);
-        int last = values.length - 1;
-        for(int i=0; i<values.length; i++) {
-            String v = values[i].trim();
-            if(v.isEmpty()) continue;
-            if(i==0 && v.charAt(0) == '[') {
-                v = v.substring(1);
-            }
-            if(i==last && v.charAt(v.length()-1) == ']') {
-                v = v.substring(0, v.length()-1);
-            }
-            if(v.charAt(0) == '"' && v.charAt(v.length()-1) == '"') {
-                v = v.substring(1, v.length()-1);
-            }
-            values[i] = v;
-        }
-        int ln = -1;
-        if (values.length > 2) {
-            ln = prefix(values[0].charAt(0));
+        final ListScanner scanner = new ListScanner(value);
+        final List<String> list = new ArrayList<>();
+        while (scanner.next()) {
+            list.add(scanner.element());
         }
-
-        return merageValues(values, ln);
-        //return Arrays.asList(values);
+        return list;
     };
 
     static final StringValueConverter<Set<String>> SET = value -> {
-        return new LinkedHashSet<>(LIST.convert(value));
+        final ListScanner scanner = new ListScanner(value);
+        final Set<String> set = new LinkedHashSet<>();
+        while (scanner.next()) {
+            set.add(scanner.element());
+        }
+        return set;
     };
 
     static final StringValueConverter<String[]> STRING_ARRAY = value -> {
-        List<String> values = LIST.convert(value);
+        final List<String> values = LIST.convert(value);
         return values.toArray(new String[values.size()]);
     };
 
-    static final StringValueConverter<int[]> INTEGER_ARRAY = value -> {
-        String[] array = STRING_ARRAY.convert(value);
-        int[] values = new int[array.length];
-        for(int i=0; i<values.length; i++) {
-            values[i] = INTEGER.convert(cutDecimal(array[i]));
+    static final StringValueConverter<int[]> INTEGER_ARRAY = Converter::toInts;
+    static final StringValueConverter<long[]> LONG_ARRAY = Converter::toLongs;
+
+    static final StringValueConverter<float[]> FLOAT_ARRAY = value -> {
+        final ListScanner scanner = new ListScanner(value);
+        final float[] values = new float[scanner.size()];
+        for (int i = 0; scanner.next(); i++) {
+            values[i] = Float.parseFloat(scanner.element());
         }
         return values;
     };
 
-    static final StringValueConverter<long[]> LONG_ARRAY = value -> {
-        String[] array = STRING_ARRAY.convert(value);
-        long[] values = new long[array.length];
-        for(int i=0; i<values.length; i++) {
-            values[i] = LONG.convert(cutDecimal(array[i]));
+    static final StringValueConverter<double[]> DOUBLE_ARRAY = Converter::toDoubles;
+
+    static final StringValueConverter<boolean[]> BOOLEAN_ARRAY = value -> {
+        final ListScanner scanner = new ListScanner(value);
+        final boolean[] values = new boolean[scanner.size()];
+        for (int i = 0; scanner.next(); i++) {
+            values[i] = scanner.isTrue();
         }
         return values;
     };
 
-    static final StringValueConverter<float[]> FLOAT_ARRAY = value -> {
-        String[] array = STRING_ARRAY.convert(value);
-        float[] values = new float[array.length];
-        for(int i=0; i<values.length; i++) {
-            values[i] = FLOAT.convert(array[i]);
+    /**
+     * A single pass scanner of the comma separated elements of a list value like '[1, 2, 3]' or 'a, "b", {c, d}'.
+     * The commas in the quotes or the nested brackets '{}', '[]', '()' are not delimiters.
+     * The elements are the ranges of the value without the blanks and quotes,
+     * no string is copied until {@link #element()} is called.
+     */
+    static final class ListScanner {
+        /** The characters changing the state of scanning */
+        private static final boolean[] SPECIALS = new boolean[128];
+        static {
+            for (char c : "\\\",[]{}()".toCharArray()) {
+                SPECIALS[c] = true;
+            }
+        }
+        private final String value;
+        private final int end;
+        /** Has quotes or nested brackets, else the delimiters are found by indexOf */
+        private final boolean nested;
+        private int next;
+        int start;
+        int stop;
+
+        ListScanner(String value) {
+            this.value = value;
+            int from = 0;
+            int to = value.length();
+            while (from < to && value.charAt(from) <= ' ') from++;
+            while (to > from && value.charAt(to - 1) <= ' ') to--;
+            boolean nested = isNested(value, from + 1, to);
+            if (to - from >= 2 && value.charAt(from) == '[') {
+                final int closing = nested ? scan(from, to, true) : value.indexOf(']', from);
+                if (closing == to - 1) {
+                    to--;
+                }
+                if (closing == to || closing < 0) {
+                    // The opening bracket of a cut list '[a, b' is skipped too
+                    from++;
+                    while (from < to && value.charAt(from) <= ' ') from++;
+                } else {
+                    nested = true;
+                }
+            } else if (from < to && SPECIALS[Math.min(value.charAt(from), 127)]) {
+                nested = true;
+            }
+            // The trailing empty elements 'a, b,' are dropped, same as String.split
+            while (to > from && value.charAt(to - 1) <= ' ') to--;
+            while (to > from && value.charAt(to - 1) == ',') {
+                to--;
+                while (to > from && value.charAt(to - 1) <= ' ') to--;
+            }
+            this.end = to;
+            this.nested = nested;
+            // An empty list has no element
+            this.next = (from < to) ? from : to + 1;
+        }
+
+        private static boolean isNested(String value, int from, int to) {
+            // String.indexOf is an intrinsic, faster than a loop on the large lists
+            return contains(value, '"', from, to) || contains(value, '[', from, to)
+                    || contains(value, '{', from, to) || contains(value, '(', from, to);
+        }
+
+        private static boolean contains(String value, char c, int from, int to) {
+            final int i = value.indexOf(c, from);
+            return i >= 0 && i < to;
+        }
+
+        private int delimiter(int from) {
+            if (nested) {
+                return scan(from, end, false);
+            }
+            final int i = value.indexOf(',', from);
+            return (i < 0 || i > end) ? end : i;
+        }
+
+        /**
+         * Find the top level delimiter ',' from the position,
+         * or the bracket closing the one at the position if closing is true.
+         *
+         * @return The index of found, the end if the delimiter is not found or -1 if the bracket is not closed.
+         */
+        private int scan(int from, int to, boolean closing) {
+            int depth = 0;
+            boolean quoted = false;
+            for (int i = from; i < to; i++) {
+                final char c = value.charAt(i);
+                if (c < 128 && !SPECIALS[c]) {
+                    continue;
+                }
+                if (quoted) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == '[' || c == '{' || c == '(') {
+                    depth++;
+                } else if (c == ']' || c == '}' || c == ')') {
+                    if (depth > 0 && --depth == 0 && closing) {
+                        return i;
+                    }
+                } else if (c == ',' && depth == 0 && !closing) {
+                    return i;
+                }
+            }
+            return closing ? -1 : to;
+        }
+
+        boolean next() {
+            if (next > end) {
+                return false;
+            }
+            final int delimiter = delimiter(next);
+            int from = next;
+            int to = delimiter;
+            while (from < to && value.charAt(from) <= ' ') from++;
+            while (to > from && value.charAt(to - 1) <= ' ') to--;
+            if (to - from >= 2 && value.charAt(from) == '"' && value.charAt(to - 1) == '"') {
+                from++;
+                to--;
+            }
+            start = from;
+            stop = to;
+            next = delimiter + 1;
+            return true;
+        }
+
+        /**
+         * Count the rest elements.
+         */
+        int size() {
+            if (next > end) {
+                return 0;
+            }
+            int count = 1;
+            for (int i = delimiter(next); i < end; i = delimiter(i + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        String element() {
+            return value.substring(start, stop);
+        }
+
+        /**
+         * Same as {@link Converter#BOOLEAN} without copying the element.
+         */
+        boolean isTrue() {
+            final int length = stop - start;
+            return (length == 4 && value.regionMatches(true, start, "true", 0, 4))
+                    || (length == 3 && value.regionMatches(true, start, "yes", 0, 3))
+                    || (length == 1 && value.charAt(start) == '1');
+        }
+    }
+
+    static int[] toInts(String value) {
+        final ListScanner scanner = new ListScanner(value);
+        final int[] values = new int[scanner.size()];
+        for (int i = 0; scanner.next(); i++) {
+            values[i] = parseInt(value, scanner.start, scanner.stop);
         }
         return values;
-    };
+    }
 
-    static final StringValueConverter<double[]> DOUBLE_ARRAY = value -> {
-        String[] array = STRING_ARRAY.convert(value);
-        double[] values = new double[array.length];
-        for(int i=0; i<values.length; i++) {
-            values[i] = DOUBLE.convert(array[i]);
+    static long[] toLongs(String value) {
+        final ListScanner scanner = new ListScanner(value);
+        final long[] values = new long[scanner.size()];
+        for (int i = 0; scanner.next(); i++) {
+            values[i] = parseLong(value, scanner.start, scanner.stop);
         }
         return values;
-    };
+    }
 
-    static final StringValueConverter<boolean[]> BOOLEAN_ARRAY = value -> {
-        String[] array = STRING_ARRAY.convert(value);
-        boolean[] values = new boolean[array.length];
-        for(int i=0; i<values.length; i++) {
-            values[i] = BOOLEAN.convert(array[i]);
+    static double[] toDoubles(String value) {
+        final ListScanner scanner = new ListScanner(value);
+        final double[] values = new double[scanner.size()];
+        for (int i = 0; scanner.next(); i++) {
+            values[i] = Double.parseDouble(scanner.element());
         }
         return values;
-    };
+    }
 
-    private static String cutDecimal(String value) {
-        int dot = value.indexOf('.');
-        if (dot > 0) {
-            return value.substring(0, dot);
+    static int parseInt(CharSequence value, int from, int to) {
+        final long number = parseLong(value, from, to);
+        if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw numberFormat(value, from, to);
         }
-        return value;
+        return (int)number;
+    }
+
+    /**
+     * Parse a decimal number in the range without boxing and copying, the decimal fraction is cut like '1.5' to 1.
+     */
+    static long parseLong(CharSequence value, int from, int to) {
+        int i = from;
+        final boolean negative = i < to && value.charAt(i) == '-';
+        if (negative || (i < to && value.charAt(i) == '+')) {
+            i++;
+        }
+        if (i >= to || value.charAt(i) < '0' || value.charAt(i) > '9') {
+            throw numberFormat(value, from, to);
+        }
+        // Accumulate negatively for Long.MIN_VALUE
+        long result = 0L;
+        for (; i < to; i++) {
+            final char c = value.charAt(i);
+            if (c == '.') {
+                break;
+            }
+            final int digit = c - '0';
+            if (digit < 0 || digit > 9 || result < Long.MIN_VALUE / 10L) {
+                throw numberFormat(value, from, to);
+            }
+            result *= 10L;
+            if (result < Long.MIN_VALUE + digit) {
+                throw numberFormat(value, from, to);
+            }
+            result -= digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw numberFormat(value, from, to);
+            }
+            result = -result;
+        }
+        return result;
+    }
+
+    private static NumberFormatException numberFormat(CharSequence value, int from, int to) {
+        return new NumberFormatException("For input string: \"" + value.subSequence(from, to) + "\"");
     }
 
     static ConcurrentHashMap<Class<?>, StringValueConverter<?>> converters = new ConcurrentHashMap<>(40);
@@ -377,6 +672,18 @@ public class Converter implements Serializable {
         return (T[])array;
     }
 
+    public int[] convertInts(String value) {
+        return toInts(value);
+    }
+
+    public long[] convertLongs(String value) {
+        return toLongs(value);
+    }
+
+    public double[] convertDoubles(String value) {
+        return toDoubles(value);
+    }
+
     @SuppressWarnings("unchecked")
     public <T> StringValueConverter<T> getConverter(Class<T> classType) {
         return (StringValueConverter<T>)converters.get(classType);
@@ -0,0 +1,83 @@
+package net.tiny.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dependency graph of the beans, the edges are '${ref}' references.
+ *
+ */
+final class DependencyGraph {
+
+    private final Map<String, Set<String>> edges = new LinkedHashMap<>();
+
+    void add(String node, Set<String> dependencies) {
+        final Set<String> deps = edges.computeIfAbsent(node, n -> new LinkedHashSet<>());
+        for (String dep : dependencies) {
+            if (!node.equals(dep)) {
+                deps.add(dep);
+                edges.computeIfAbsent(dep, n -> new LinkedHashSet<>());
+            }
+        }
+    }
+
+    Set<String> nodes() {
+        return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    Set<String> dependencies(String node) {
+        final Set<String> deps = edges.get(node);
+        return (null != deps) ? Collections.unmodifiableSet(deps) : Collections.emptySet();
+    }
+
+    /**
+     * Sort the nodes in topological order, a node is always after its dependencies.
+     * The nodes on a cycle are not contained, see {@link #cycles()}.
+     */
+    List<String> order() {
+        final Map<String, Integer> degrees = new HashMap<>();
+        final Map<String, List<String>> dependents = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : edges.entrySet()) {
+            degrees.put(entry.getKey(), entry.getValue().size());
+            for (String dep : entry.getValue()) {
+                dependents.computeIfAbsent(dep, n -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        final Deque<String> ready = new ArrayDeque<>();
+        for (String node : edges.keySet()) {
+            if (degrees.get(node) == 0) {
+                ready.add(node);
+            }
+        }
+        final List<String> sorted = new ArrayList<>(edges.size());
+        while (!ready.isEmpty()) {
+            final String node = ready.poll();
+            sorted.add(node);
+            for (String dependent : dependents.getOrDefault(node, Collections.emptyList())) {
+                final int degree = degrees.get(dependent) - 1;
+                degrees.put(dependent, degree);
+                if (degree == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * The nodes that are on a cycle reference, or depend on a cycle.
+     */
+    Set<String> cycles() {
+        final Set<String> nodes = new LinkedHashSet<>(edges.keySet());
+        nodes.removeAll(order());
+        return nodes;
+    }
+}
@@ -60,6 +60,9 @@ public class HoconLoader extends PropertiesLoader {
                 LOGGER.warning(String.format("Unknow resource '%s'", href));
                 return;
             }
+            if (support.getListener() != null) {
+                support.getListener().property(INCLUDE, res, url.toString());
+            }
             // Load included config values
             Properties prop = load(url.openStream(), guessType(res), support.getListener());
             if(parentKey.length() == 0) {
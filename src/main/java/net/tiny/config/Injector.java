@@ -0,0 +1,110 @@
+package net.tiny.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Property value injector.
+ * A {@link MethodHandle} of the field or setter is created once and reused,
+ * plain reflection is used when the member can not be accessed by a handle.
+ *
+ */
+final class Injector {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, Injector>> FIELDS = new ClassValue<ConcurrentMap<String, Injector>>() {
+        @Override
+        protected ConcurrentMap<String, Injector> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    final Field field;
+    final Method setter;
+    private final Class<?> type;
+    private final boolean primitive;
+    private final MethodHandle handle;
+
+    private Injector(Field field, Method setter) {
+        this.field = field;
+        this.setter = setter;
+        final Class<?> valueType = (setter != null) ? setter.getParameterTypes()[0] : field.getType();
+        this.primitive = valueType.isPrimitive();
+        this.type = primitive ? MethodType.methodType(valueType).wrap().returnType() : valueType;
+        this.handle = unreflect(field, setter);
+    }
+
+    static Injector of(Field field) {
+        return new Injector(field, null);
+    }
+
+    static Injector of(Method setter) {
+        return new Injector(null, setter);
+    }
+
+    /**
+     * Get the cached field injector by the field name, the field will be found from super classes.
+     */
+    static Injector field(Class<?> beanClass, String name) throws NoSuchFieldException {
+        final ConcurrentMap<String, Injector> injectors = FIELDS.get(beanClass);
+        Injector injector = injectors.get(name);
+        if (injector == null) {
+            injector = of(Reflections.getDeclaredField(beanClass, name));
+            final Injector other = injectors.putIfAbsent(name, injector);
+            if (other != null) {
+                injector = other;
+            }
+        }
+        return injector;
+    }
+
+    boolean isHandle() {
+        return handle != null;
+    }
+
+    void inject(Object bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (handle != null && (value == null ? !primitive : type.isInstance(value))) {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+            return;
+        }
+        // Reflection handles the widening conversion and throws IllegalArgumentException
+        if (setter != null) {
+            setter.invoke(bean, value);
+        } else {
+            field.set(bean, value);
+        }
+    }
+
+    private static MethodHandle unreflect(Field field, Method setter) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (setter != null) {
+                setter.setAccessible(true);
+                return lookup.unreflect(setter).asType(SETTER_TYPE);
+            } else {
+                field.setAccessible(true);
+                return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            }
+        } catch (IllegalAccessException | RuntimeException ex) {
+            // Not accessible class (e.g. closed module), use reflection.
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s) handle:%s", getClass().getSimpleName(),
+                (setter != null ? setter.getName() : field.getName()), isHandle());
+    }
+}
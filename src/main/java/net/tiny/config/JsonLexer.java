@@ -0,0 +1,386 @@
+package net.tiny.config;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * JSON lexer works on a char buffer.
+ * The token text is copied into a reusable buffer, a string is created only when it is used.
+ * Map keys are shared by a small key cache, numbers are parsed without exceptions.
+ *
+ */
+final class JsonLexer {
+
+    static final int EOF    = -1;
+    static final int STRING = -2;
+    static final int NUMBER = -3;
+    static final int WORD   = -4;
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int KEY_CACHE_SIZE = 512; // Power of 2
+    private static final int KEY_MAX_LENGTH = 64;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit;
+
+    private char[] text = new char[64];
+    private int length = 0;
+    private int type = EOF;
+    private boolean pushed = false;
+    private int line = 1;
+    private final String[] keys = new String[KEY_CACHE_SIZE];
+
+    JsonLexer(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.limit = 0;
+    }
+
+    JsonLexer(String value) {
+        this.reader = null;
+        this.buffer = value.toCharArray();
+        this.limit = buffer.length;
+    }
+
+    int line() {
+        return line;
+    }
+
+    int type() {
+        return type;
+    }
+
+    /**
+     * Read next token.
+     * @return The token type, {@link #EOF}, {@link #STRING}, {@link #NUMBER}, {@link #WORD}
+     *          or one of the characters '{', '}', '[', ']', ':', ','.
+     */
+    int next() throws IOException {
+        if (pushed) {
+            pushed = false;
+            return type;
+        }
+        final int c = skip();
+        switch (c) {
+        case -1:
+            return type = EOF;
+        case JsonParser.LBRACE:
+        case JsonParser.RBRACE:
+        case JsonParser.LBRACKET:
+        case JsonParser.RBRACKET:
+        case JsonParser.COLON:
+        case JsonParser.COMMA:
+            position++;
+            return type = c;
+        case JsonParser.QUOTE:
+        case '\'':
+            position++;
+            readString((char)c);
+            return type = STRING;
+        default:
+            readWord();
+            return type = isNumber() ? NUMBER : WORD;
+        }
+    }
+
+    void pushBack() {
+        pushed = true;
+    }
+
+    String string() {
+        return new String(text, 0, length);
+    }
+
+    /**
+     * The string of a map key, a same key returns a cached string.
+     */
+    String key() {
+        if (length > KEY_MAX_LENGTH) {
+            return string();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + text[i];
+        }
+        final int index = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String key = keys[index];
+        if (key != null && key.hashCode() == hash && matches(key)) {
+            return key;
+        }
+        key = string();
+        keys[index] = key;
+        return key;
+    }
+
+    boolean matches(String value) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean matchesIgnoreCase(String value) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(value.charAt(i)) != Character.toLowerCase(text[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The value of a {@link #NUMBER} token.
+     */
+    double number() {
+        int i = 0;
+        boolean negative = false;
+        if (text[0] == '-') {
+            negative = true;
+            i++;
+        }
+        if (length - i <= MAX_LONG_DIGITS) {
+            long value = 0L;
+            int j = i;
+            while (j < length && text[j] >= '0' && text[j] <= '9') {
+                value = value * 10L + (text[j] - '0');
+                j++;
+            }
+            if (j == length) {
+                // Integer number
+                return negative ? -value : value;
+            }
+        }
+        // The number format has been checked, never throw NumberFormatException.
+        return Double.parseDouble(string());
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        final int n = reader.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Skip white spaces and comments, returns the next character without read it.
+     */
+    private int skip() throws IOException {
+        for (;;) {
+            final int c = peek();
+            if (c == -1) {
+                return -1;
+            }
+            if (c == '\n') {
+                line++;
+                position++;
+            } else if (c <= ' ') {
+                position++;
+            } else if (c == '/') {
+                position++;
+                if (peek() == '*') {
+                    position++;
+                    skipBlockComment();
+                } else {
+                    skipLine();
+                }
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\n') {
+                line++;
+                return;
+            }
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int c;
+        boolean star = false;
+        while ((c = read()) != -1) {
+            if (c == '\n') {
+                line++;
+            } else if (star && c == '/') {
+                return;
+            }
+            star = (c == '*');
+        }
+    }
+
+    private void append(char c) {
+        if (length == text.length) {
+            final char[] larger = new char[text.length << 1];
+            System.arraycopy(text, 0, larger, 0, length);
+            text = larger;
+        }
+        text[length++] = c;
+    }
+
+    private void readString(char quote) throws IOException {
+        length = 0;
+        for (;;) {
+            // Copy the plain characters in buffer at once
+            int start = position;
+            while (position < limit) {
+                final char c = buffer[position];
+                if (c == quote || c == '\\' || c == '\n') {
+                    break;
+                }
+                position++;
+            }
+            final int n = position - start;
+            if (n > 0) {
+                if (length + n > text.length) {
+                    final char[] larger = new char[Math.max(text.length << 1, length + n)];
+                    System.arraycopy(text, 0, larger, 0, length);
+                    text = larger;
+                }
+                System.arraycopy(buffer, start, text, length, n);
+                length += n;
+            }
+            final int c = read();
+            if (c == -1) {
+                throw new IOException(String.format("Unterminated string on %d", line));
+            }
+            if (c == quote) {
+                return;
+            }
+            if (c == '\n') {
+                line++;
+                append('\n');
+            } else if (c == '\\') {
+                append(escape());
+            } else {
+                // The first character of a refilled buffer
+                append((char)c);
+            }
+        }
+    }
+
+    private char escape() throws IOException {
+        final int c = read();
+        switch (c) {
+        case -1:
+            throw new IOException(String.format("Unterminated string on %d", line));
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'a':
+            return (char)7;
+        case 'v':
+            return (char)0x0B;
+        case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                final int h = Character.digit(read(), 16);
+                if (h < 0) {
+                    throw new IOException(String.format("Illegal unicode escape on %d", line));
+                }
+                code = (code << 4) | h;
+            }
+            return (char)code;
+        default:
+            // '\"', '\\', '\/' and others
+            return (char)c;
+        }
+    }
+
+    private void readWord() throws IOException {
+        length = 0;
+        int c;
+        while ((c = peek()) != -1) {
+            if (c <= ' ' || c == '/' || c == JsonParser.QUOTE || c == '\''
+                    || c == JsonParser.LBRACE || c == JsonParser.RBRACE
+                    || c == JsonParser.LBRACKET || c == JsonParser.RBRACKET
+                    || c == JsonParser.COLON || c == JsonParser.COMMA) {
+                break;
+            }
+            append((char)c);
+            position++;
+        }
+    }
+
+    /**
+     * Check the token text by JSON number format '-?digits(.digits)?([eE][+-]?digits)?'
+     */
+    private boolean isNumber() {
+        int i = 0;
+        if (i < length && text[i] == '-') {
+            i++;
+        }
+        final int digits = i;
+        while (i < length && text[i] >= '0' && text[i] <= '9') {
+            i++;
+        }
+        if (i == digits) {
+            return false;
+        }
+        if (i < length && text[i] == '.') {
+            i++;
+            final int fraction = i;
+            while (i < length && text[i] >= '0' && text[i] <= '9') {
+                i++;
+            }
+            if (i == fraction) {
+                return false;
+            }
+        }
+        if (i < length && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            if (i < length && (text[i] == '+' || text[i] == '-')) {
+                i++;
+            }
+            final int exponent = i;
+            while (i < length && text[i] >= '0' && text[i] <= '9') {
+                i++;
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+}
@@ -1,37 +1,27 @@
 package net.tiny.config;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.StreamTokenizer;
 import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.Writer;
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.lang.reflect.Type;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class JsonParser {
@@ -58,286 +48,37 @@ public class JsonParser {
     }
 
     public static String marshal(Object target, boolean oneline) {
-        StringWriter writer = new StringWriter();
-        marshal(target, new OnelineWriter(new PrintWriter(writer), oneline));
-        return writer.toString();
+        final StringBuilder sb = new StringBuilder();
+        try {
+            marshal(target, sb, oneline);
+        } catch (IOException e) {
+            // StringBuilder never throws
+        }
+        return sb.toString();
     }
 
     public static void marshal(Object target, OutputStream out) {
         marshal(target, out, true);
     }
     public static void marshal(Object target, OutputStream out, boolean oneline) {
-        marshal(target, new OnelineWriter(new PrintWriter(out), oneline));
-    }
-
-    public static void marshal(Object target, OnelineWriter writer) {
-        if(null == target)
-            return;
-        boolean listed = (target instanceof Collection);
-        Class<?> type = target.getClass();
-        if (!listed) writer.print("{");
-
-        if(Reflections.isJavaType(type)) {
-            marshalJava(target, writer);
-        } else if(Reflections.isJavaArrayType(type)) {
-            marshalJavaArray(1, target, writer);
-        } else if(Reflections.isCollectionType(type)) {
-            marshalCollection(1, target, writer);
-        } else if(target instanceof Map) {
-            marshalMap(1, target, writer);
-        } else {
-            writer.println();
-            marshalJson(1, target, writer);
-            writer.println();
-        }
-
-        if(!listed)	writer.println("}");
-    }
-
-    static void marshalJson(int indent, Object target, OnelineWriter writer) {
-        List<Field> fields = Reflections.getFieldStream(target.getClass()).collect(Collectors.toList());
-        final String prefix = indentString(indent);
-        boolean first = true;
-        for(Field field : fields) {
-            Object value = getFieldValue(target, field);
-            if(null != value) {
-                if(first) {
-                    first = false;
-                } else {
-                    writer.println(",");
-                }
-                printField(indent, prefix, field, value, writer);
-            }
-        }
-    }
-
-    static void marshalJava(Object target, OnelineWriter writer) {
-        writer.write(toJsonValue(0, "", target.getClass(), target, null, writer.oneline()));
-    }
-
-    static void marshalJavaArray(int num, Object target, OnelineWriter writer) {
-        writer.write("[");
-        int length = Array.getLength(target);
-        for (int i = 0; i < length; i++) {
-            if(i > 0) writer.write(",");
-            marshalJava(Array.get(target, i), writer);
-        }
-        writer.write("]");
-    }
-
-    static void marshalCollection(int num, Object target, OnelineWriter writer) {
-        writer.write("[");
-        boolean first = true;
-        Iterator<?> iterator = ((Collection<?>)target).iterator();
-        while(iterator.hasNext()) {
-            if(!first) {
-                writer.write(",");
-            } else {
-                 first = false;
-            }
-            marshalJava(iterator.next(), writer);
-        }
-        writer.write("]");
-    }
-
-    @SuppressWarnings("unchecked")
-    static void marshalMap(int num, Object target, OnelineWriter writer) {
-        boolean first = true;
-        String prefix = indentString(num);
-        Map<Object, Object> map = ((Map<Object, Object>)target);
-        Set<Object> keys = map.keySet();
-        for(Object key : keys) {
-            if(!first) {
-                writer.println(",");
-            } else {
-                writer.println();
-                first = false;
-            }
-            Object value = map.get(key);
-            if (value == null) {
-                LOGGER.warning(String.format("Parse json error - Null value of key '%s'", key));
-                continue;
-            }
-            if (Reflections.isCollectionType(value.getClass())) {
-                writer.print(prefix);
-                writer.print("\"");
-                writer.print(key);
-                writer.print("\": ");
-                marshalCollection(1, value, writer);
-            } else {
-                writer.print(prefix);
-                writer.print("\"");
-                writer.print(key);
-                writer.print("\": ");
-                writer.print(toJsonValue(num+1, prefix, value.getClass(), value, null, writer.oneline()));
-            }
-        }
-        writer.println();
-    }
-
-
-    private static String indentString(int num) {
-        StringBuffer sb = new StringBuffer();
-        for(int i=0; i<num; i++) {
-            sb.append("  ");
-        }
-        return sb.toString();
-    }
-
-    private static void printField(int indent, String prefix, Field field, Object value, OnelineWriter writer) {
-        String string = toJsonValue(indent, prefix, value.getClass(), value, Reflections.getFieldGenericType(field), writer.oneline());
-        writer.print(prefix);
-        writer.print("\"");
-        writer.print(field.getName());
-        writer.print("\": ");
-        writer.print(string);
-    }
-
-
-    private static String toJsonValue(int indent, String prefix, Class<?> type, Object value, Type fieldType, boolean oneline) {
-        String string = "";
-        if (type.isEnum()) {
-            string = "\"" + value.toString() + "\"";
-        } else if (value instanceof LocalDate) {
-            string = "\"" + DateTimeFormatter.ofPattern("yyyy/MM/dd").format((LocalDate)value) + "\"";
-        } else if (value instanceof LocalTime) {
-            string = "\"" + DateTimeFormatter.ofPattern("HH:mm:ss").format((LocalTime)value) + "\"";
-        } else if (value instanceof LocalDateTime) {
-            string = "\"" + DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss").format((LocalDateTime)value) + "\"";
-        } else if (value instanceof Timestamp) {
-            string = "" + ((Timestamp)value).getTime();
-        } else if (value instanceof Date) {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd");
-            string = "\"" + sdf.format((Date)value) + "\"";
-        } else if (boolean.class.equals(type) || Boolean.class.equals(type)) {
-            string = "\"" + (boolean) value + "\"";
-        } else if (int.class.equals(type) || Integer.class.equals(type)) {
-            string = "" + (int)value;
-        } else if (short.class.equals(type) || Short.class.equals(type)) {
-            string = "" + (short)value;
-        } else if (long.class.equals(type) || Long.class.equals(type)) {
-            string = "" + (long)value;
-        } else if (float.class.equals(type) || Float.class.equals(type)) {
-            string = "" + (float)value;
-        } else if (double.class.equals(type) || Double.class.equals(type)) {
-            string = "" + (double)value;
-        } else if (String.class.equals(type) || Character.class.equals(type) || char.class.equals(type)) {
-            //Replace '\n' to '\\n'
-            string = "\"" + ((String)value).replaceAll("\n", "\\\\n").replaceAll("\r", "\\\\r") + "\"";
-        } else if (BigDecimal.class.equals(type)) {
-            string = "" + (BigDecimal) value;
-        } else if (BigInteger.class.equals(type)) {
-            string = "" + (BigInteger) value;
-        } else if (type.isArray()) {
-            string = toJsonArray(indent, value, (Class<?>)fieldType, oneline);
-        } else if (value instanceof Collection) {
-            string = toJsonCollection(indent, (Collection<?>) value, (Class<?>)fieldType, oneline);
-        } else if (value instanceof Map) {
-            String pre = indentString(indent);
-            StringWriter sw = new StringWriter();
-            OnelineWriter pw = new OnelineWriter(new PrintWriter(sw), oneline);
-            pw.print(pre);
-            pw.println("{");
-            marshalMap(indent+1, value, pw);
-            pw.println();
-            pw.print(pre);
-            pw.print("}");
-            string = sw.toString();
-        } else {
-            String pre = indentString(indent);
-            StringWriter sw = new StringWriter();
-            OnelineWriter pw = new OnelineWriter(new PrintWriter(sw), oneline);
-            pw.print(pre);
-            pw.println("{");
-            marshalJson(indent+1, value, pw);
-            pw.println();
-            pw.print(pre);
-            pw.print("}");
-            string = sw.toString();
-        }
-        return string;
-    }
-
-
-    private static String toJsonArray(int indent, Object array, Class<?> type, boolean oneline)  {
-        StringWriter sw = new StringWriter();
-        OnelineWriter writer = new OnelineWriter(new PrintWriter(sw), oneline);
-        writer.print("[");
-
-        int length = Array.getLength(array);
-        //boolean oneline = true;
-        if(length > 0) {
-            Object value = Array.get(array, 0);
-            if(null != value && !oneline) {
-                oneline = Reflections.isJavaType(value.getClass());
-            }
-        }
-        if(!oneline) {
-            writer.println();
-        }
-
-        String prefix = indentString(indent);
-        boolean first = true;
-        for (int i = 0; i < length; i++) {
-            Object value = Array.get(array, i);
-            if(null != value) {
-                if(first) {
-                    first = false;
-                } else {
-                    writer.print(",");
-                    if(!oneline) {
-                        writer.println();
-                    }
-                }
-                if(!oneline) {
-                    writer.print(prefix);
-                }
-                writer.print(toJsonValue(indent+1, prefix, value.getClass(), value, null, oneline));
-            }
-        }
-        if(!oneline) {
-            writer.println();
-            writer.print(prefix);
+        try {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            marshal(target, writer, oneline);
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
         }
-        writer.print("]");
-        writer.close();
-        return sw.toString();
     }
 
-    private static String toJsonCollection(int indent, Collection<?> list, Class<?> type, boolean oneline) {
-        StringWriter sw = new StringWriter();
-        OnelineWriter writer = new OnelineWriter(new PrintWriter(sw), oneline);
-        writer.print("[");
-        if (!oneline) {
-            oneline = Reflections.isJavaType(type);
-        }
-        if(!oneline) {
-            writer.println();
-        }
-        String prefix = indentString(indent);
-        boolean first = true;
-        for (Object target : list) {
-            if(first) {
-                first = false;
-            } else {
-                writer.print(",");
-                if(!oneline) {
-                    writer.println();
-                }
-            }
-            if(!oneline) {
-                writer.print(prefix);
-            }
-            writer.print(toJsonValue(indent+1, prefix, target.getClass(), target, null, oneline));
-        }
-
-        if(!oneline) {
-            writer.println();
-            writer.print(prefix);
-        }
-        writer.print("]");
-        writer.close();
-        return sw.toString();
+    /**
+     * Write the JSON tokens to the output directly, without building intermediate strings.
+     *
+     * @param target The object to marshal
+     * @param out The output
+     * @param oneline Without line feeds and indents
+     */
+    public static void marshal(Object target, Appendable out, boolean oneline) throws IOException {
+        new JsonWriter(out, oneline).write(target);
     }
 
     public static String toString(Object obj) {
@@ -438,6 +179,29 @@ public class JsonParser {
         return unmarshals(new StringReader(value), type, new Mapper());
     }
 
+    /**
+     * Parse a JSON array lazily, each element is mapped to the type when the stream reaches it.
+     * The stream should be closed to close the reader.
+     *
+     * @param reader The reader of a JSON array
+     * @param type The element type
+     * @return The stream of the array elements
+     */
+    public static <T> Stream<T> stream(Reader reader, Class<T> type) {
+        return StreamSupport.stream(new ElementSpliterator<>(reader, type, new Mapper()), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        LOGGER.log(Level.WARNING, String.format("Close json reader error - %s.", e.getMessage()), e);
+                    }
+                });
+    }
+
+    public static <T> Stream<T> stream(InputStream in, Class<T> type) {
+        return stream(new InputStreamReader(in), type);
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> T unmarshal(Reader reader, Class<T> type, Mapper mapper) {
         try {
@@ -511,210 +275,174 @@ public class JsonParser {
             }
     }
 
-    private static Object getFieldValue(Object obj, Field field) {
-        try {
-            field.setAccessible(true);
-            Object value = field.get(obj);
-            field.setAccessible(false);
-            return value;
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            LOGGER.log(Level.WARNING, String.format("Get field value '%s.%s' error : %s.",
-                    obj.getClass().getSimpleName(), field.getName(), e.getMessage()), e);
-            return null;
-        }
-    }
-
-    static StreamTokenizer createStreamTokenizer(Reader reader) {
-        StreamTokenizer tokenizer = new StreamTokenizer(reader);
-        tokenizer.wordChars('a', 'z');
-        tokenizer.wordChars('A', 'Z');
-        tokenizer.wordChars('0', '9');
-        tokenizer.wordChars('_', '_');
-        tokenizer.wordChars('-', '-');
-        tokenizer.wordChars('$', '$');
-        tokenizer.quoteChar(QUOTE);
-        tokenizer.eolIsSignificant(false);
-        //tokenizer.slashSlashComments(true);
-        return tokenizer;
-    }
-
     //////////////////////////////////////////////////
     // Parser methods
 
     // Simple recursive descent
     public Object parse(Reader reader) throws IOException {
-        return parseTokens(createStreamTokenizer(reader));
+        return parseValue(new JsonLexer(reader));
+    }
+
+    public Object parse(String value) throws IOException {
+        return parseValue(new JsonLexer(value));
     }
 
-    protected Object parseTokens(StreamTokenizer tokens) throws IOException {
-        int token = tokens.nextToken();
+    Object parseValue(JsonLexer lexer) throws IOException {
+        int token = lexer.next();
         switch (token) {
-        case StreamTokenizer.TT_EOF:
+        case JsonLexer.EOF:
             return null;
-        case StreamTokenizer.TT_NUMBER:
-        case StreamTokenizer.TT_WORD:
-        case QUOTE:
-            return parseAtomic(tokens);
+        case JsonLexer.STRING:
+            return lexer.string();
+        case JsonLexer.NUMBER:
+            return lexer.number();
+        case JsonLexer.WORD:
+            return parseWord(lexer);
         case LBRACE:
-            return parseMap(tokens);
+            return parseMap(lexer);
         case LBRACKET:
-            return parseArray(tokens);
-        default:
-            throw new IOException(String.format("Unexpected token: '0x%02x' on %d", (byte)token, tokens.lineno()));
-        }
-    }
-
-    protected Object parseAtomic(StreamTokenizer tokens) throws IOException {
-        assert (tokens.ttype == StreamTokenizer.TT_WORD ||
-                tokens.ttype == StreamTokenizer.TT_NUMBER ||
-                tokens.ttype == QUOTE);
-        final String word = tokens.sval;
-        switch (tokens.ttype) {
-        case QUOTE:
-            return word;
-        case StreamTokenizer.TT_NUMBER:
-            return tokens.nval;
-        case StreamTokenizer.TT_WORD:
+            return parseArray(lexer);
         default:
-            if (word.equalsIgnoreCase(TRUE))
-                return Boolean.TRUE;
-            if (word.equalsIgnoreCase(FALSE))
-                return Boolean.FALSE;
-            try {
-                return parseNumber(word);
-            } catch (NumberFormatException e) {
-                //Ignore
-            }
-            return word;
+            throw new IOException(String.format("Unexpected token: '0x%02x' on %d", (byte)token, lexer.line()));
         }
     }
 
-    private Object parseNumber(String value) throws NumberFormatException {
-        NumberFormatException err = null;
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            err = e;
-        }
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
-            err = e;
-        }
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            err = e;
-        }
-        throw err;
+    private Object parseWord(JsonLexer lexer) {
+        if (lexer.matchesIgnoreCase(TRUE))
+            return Boolean.TRUE;
+        if (lexer.matchesIgnoreCase(FALSE))
+            return Boolean.FALSE;
+        // 'null', 'NaN' and the other words are kept as string
+        return lexer.string();
     }
 
-    protected Object parseArray(StreamTokenizer tokens) throws IOException {
-        assert (tokens.ttype == LBRACKET);
+    Object parseArray(JsonLexer lexer) throws IOException {
         List<Object> array = new ArrayList<>();
-        loop: for (;;) {
-            int token = tokens.nextToken();
-            switch (token) {
-            case StreamTokenizer.TT_EOL:
-                break; // ignore
-            case StreamTokenizer.TT_EOF:
+        for (;;) {
+            int token = lexer.next();
+            if (token == JsonLexer.EOF)
                 throw new IOException("Unexpected EOF.");
-            case RBRACKET:
-                break loop;
-            default:
-                tokens.pushBack();
-                Object o = parseTokens(tokens);
-                tokens.nextToken();
-                if (tokens.ttype == StreamTokenizer.TT_EOF)
-                    break;
-                else if (tokens.ttype == RBRACKET)
-                    tokens.pushBack();
-                else if (tokens.ttype != COMMA)
-                    throw new IOException("Missing comma in list on " + tokens.lineno());
-                array.add(o);
-            }
+            if (token == RBRACKET)
+                break;
+            lexer.pushBack();
+            Object o = parseValue(lexer);
+            token = lexer.next();
+            if (token == JsonLexer.EOF)
+                throw new IOException("Unexpected EOF.");
+            else if (token == RBRACKET)
+                lexer.pushBack();
+            else if (token != COMMA)
+                throw new IOException("Missing comma in list on " + lexer.line());
+            array.add(o);
         }
         return array;
     }
 
-    protected Object parseMap(StreamTokenizer tokens) throws IOException {
-        assert (tokens.ttype == LBRACE);
+    Object parseMap(JsonLexer lexer) throws IOException {
         Map<String, Object> map = new LinkedHashMap<>(); // Keep insertion order
-        //TODO
-        loop: for (;;) {
-            int token = tokens.nextToken();
+        for (;;) {
+            int token = lexer.next();
+            String name;
             switch (token) {
-            case StreamTokenizer.TT_EOL:
-                break; // ignore
-            case StreamTokenizer.TT_EOF:
+            case JsonLexer.EOF:
                 throw new IOException("Unexpected EOF.");
             case RBRACE:
-                break loop;
+                return map;
+            case JsonLexer.STRING:
+            case JsonLexer.WORD:
+                name = lexer.key();
+                break;
+            case JsonLexer.NUMBER:
+                throw new IOException(String.format("Unexpected map name type:'%s' on %d", lexer.number(), lexer.line()));
             default:
-                tokens.pushBack();
-                Object name = parseTokens(tokens);
-                if (tokens.ttype == StreamTokenizer.TT_EOF)
-                    break;
-                if (name instanceof String || name instanceof Long || name instanceof Boolean) {
-                    /* ok */
-                } else
-                    throw new IOException(String.format("Unexpected map name type:'%s' on %d", name, tokens.lineno()));
-                if (tokens.nextToken() != COLON)
-                    throw new IOException(String.format("Expected ':'; found: %d on %d", tokens.ttype, tokens.lineno()));
-                Object o = parseTokens(tokens);
-                tokens.nextToken();
-                if (tokens.ttype == StreamTokenizer.TT_EOF)
-                    break;
-                else if (tokens.ttype == RBRACE)
-                    tokens.pushBack();
-                else if (tokens.ttype != COMMA)
-                    throw new IOException(String.format("Missing comma in list on %d", tokens.lineno()));
-                map.put(name.toString(), o);
+                throw new IOException(String.format("Unexpected map name type:'0x%02x' on %d", (byte)token, lexer.line()));
             }
+            if (lexer.next() != COLON)
+                throw new IOException(String.format("Expected ':'; found: %d on %d", lexer.type(), lexer.line()));
+            Object o = parseValue(lexer);
+            token = lexer.next();
+            if (token == JsonLexer.EOF)
+                throw new IOException("Unexpected EOF.");
+            else if (token == RBRACE)
+                lexer.pushBack();
+            else if (token != COMMA)
+                throw new IOException(String.format("Missing comma in list on %d", lexer.line()));
+            map.put(name, o);
         }
-        return map;
     }
 
-    static class OnelineWriter extends PrintWriter {
-        boolean oneline = false;
-        boolean lf = false;
-        public OnelineWriter(Writer out, boolean enable) {
-            super(out);
-            oneline = enable;
-        }
+    /**
+     * Read the elements of a JSON array one by one,
+     * the parsed map of an element is released after it was converted.
+     */
+    static class ElementSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final JsonParser parser = new JsonParser();
+        private final JsonLexer lexer;
+        private final Class<T> type;
+        private final Mapper mapper;
+        private boolean started = false;
+        private boolean finished = false;
 
-        public boolean oneline() {
-            return oneline;
+        ElementSpliterator(Reader reader, Class<T> type, Mapper mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.lexer = new JsonLexer(reader);
+            this.type = type;
+            this.mapper = mapper;
         }
 
         @Override
-        public void println() {
-            if (!oneline) {
-                if (!lf) {
-                    super.println();
-                    lf = true;
-                }
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (finished) {
+                return false;
             }
-        }
-
-        @Override
-        public void print(String s) {
-            if (oneline) {
-                super.print(s.trim());
-            } else {
-                super.print(s);
+            try {
+                if (!started) {
+                    started = true;
+                    final int token = lexer.next();
+                    if (token == JsonLexer.EOF) {
+                        finished = true;
+                        return false;
+                    }
+                    if (token != LBRACKET) {
+                        throw new IOException(String.format("Expected '['; found: %d on %d", token, lexer.line()));
+                    }
+                }
+                int token = lexer.next();
+                if (token == JsonLexer.EOF)
+                    throw new IOException("Unexpected EOF.");
+                if (token == RBRACKET) {
+                    finished = true;
+                    return false;
+                }
+                lexer.pushBack();
+                final Object value = parser.parseValue(lexer);
+                token = lexer.next();
+                if (token == JsonLexer.EOF)
+                    throw new IOException("Unexpected EOF.");
+                else if (token == RBRACKET)
+                    lexer.pushBack();
+                else if (token != COMMA)
+                    throw new IOException("Missing comma in list on " + lexer.line());
+                action.accept(convert(value));
+                return true;
+            } catch (IOException | InstantiationException | IllegalAccessException e) {
+                finished = true;
+                throw new RuntimeException(String.format("Parse json '%s' error - %s.",
+                        type.getSimpleName(), e.getMessage()), e);
             }
-            lf = false;
         }
 
-        @Override
-        public void println(String s) {
-            if (oneline) {
-                super.print(s.trim());
-            } else {
-                super.println(s);
-                lf = true;
+        @SuppressWarnings("unchecked")
+        private T convert(Object value) throws InstantiationException, IllegalAccessException {
+            if (type.isInstance(value)) {
+                return type.cast(value);
+            } else if (value instanceof Map) {
+                return mapper.convert((Map<String, ?>)value, type);
+            } else if (value instanceof Collection) {
+                throw new ClassCastException(String.format("Can not cast '%s' to '%s'",
+                        value.getClass().getName(), type.getSimpleName()));
             }
+            return mapper.convert(value.toString(), type);
         }
     }
 }
@@ -0,0 +1,288 @@
+package net.tiny.config;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JSON writer emits the tokens to an {@link Appendable} directly.
+ * The values are formatted as same as {@link JsonParser#marshal(Object)},
+ * the field names of a class are encoded once and the indents are cached.
+ *
+ */
+final class JsonWriter {
+
+    private static final Logger LOGGER  = Logger.getLogger(JsonWriter.class.getName());
+
+
+    private static final String[] INDENTS = new String[16];
+    static {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = sb.toString();
+            sb.append("  ");
+        }
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * A field of the bean with its encoded name.
+     */
+    static final class Member {
+        final Field field;
+        final String compact; // "name":
+        final String pretty;  // "name": (with a blank)
+
+        Member(Field field) {
+            this.field = field;
+            field.setAccessible(true);
+            final StringBuilder sb = new StringBuilder();
+            try {
+                string(field.getName(), sb);
+            } catch (IOException e) {
+                // StringBuilder never throws
+            }
+            sb.append(JsonParser.COLON);
+            this.compact = sb.toString();
+            this.pretty = sb.append(' ').toString();
+        }
+    }
+
+    private static final ClassValue<Member[]> MEMBERS = new ClassValue<Member[]>() {
+        @Override
+        protected Member[] computeValue(Class<?> type) {
+            return Reflections.getFieldStream(type)
+                    .map(Member::new)
+                    .toArray(Member[]::new);
+        }
+    };
+
+    private final Appendable out;
+    private final boolean oneline;
+
+    JsonWriter(Appendable out, boolean oneline) {
+        this.out = out;
+        this.oneline = oneline;
+    }
+
+    void write(Object target) throws IOException {
+        value(0, target);
+        if (!oneline) {
+            out.append('\n');
+        }
+    }
+
+    private void value(int indent, Object value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            string((String)value, out);
+        } else if (value instanceof Number) {
+            number((Number)value);
+        } else if (value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            string(value.toString(), out);
+        } else if (value instanceof LocalDate) {
+            out.append(JsonParser.QUOTE);
+            Converter.DATE_FORMATTER.formatTo((LocalDate)value, out);
+            out.append(JsonParser.QUOTE);
+        } else if (value instanceof LocalTime) {
+            out.append(JsonParser.QUOTE);
+            Converter.TIME_FORMATTER.formatTo((LocalTime)value, out);
+            out.append(JsonParser.QUOTE);
+        } else if (value instanceof LocalDateTime) {
+            out.append(JsonParser.QUOTE);
+            Converter.DATETIME_FORMATTER.formatTo((LocalDateTime)value, out);
+            out.append(JsonParser.QUOTE);
+        } else if (value instanceof Timestamp) {
+            out.append(Long.toString(((Timestamp)value).getTime()));
+        } else if (value instanceof Date) {
+            out.append(JsonParser.QUOTE);
+            Converter.DATE_FORMATTER.formatTo(Instant.ofEpochMilli(((Date)value).getTime()).atZone(ZoneId.systemDefault()), out);
+            out.append(JsonParser.QUOTE);
+        } else if (value.getClass().isArray()) {
+            array(indent, value);
+        } else if (value instanceof Collection) {
+            collection(indent, (Collection<?>)value);
+        } else if (value instanceof Map) {
+            map(indent, (Map<?, ?>)value);
+        } else {
+            bean(indent, value);
+        }
+    }
+
+    private void number(Number value) throws IOException {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.append(Long.toString(value.longValue()));
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            out.append(value.toString());
+        } else {
+            out.append(String.valueOf(value));
+        }
+    }
+
+    private void array(int indent, Object array) throws IOException {
+        final int length = Array.getLength(array);
+        out.append(JsonParser.LBRACKET);
+        boolean inline = oneline || length == 0 || Reflections.isJavaType(array.getClass().getComponentType());
+        for (int i = 0; i < length; i++) {
+            separator(i == 0, inline, indent + 1);
+            value(indent + 1, Array.get(array, i));
+        }
+        close(JsonParser.RBRACKET, length == 0 || inline, indent);
+    }
+
+    private void collection(int indent, Collection<?> list) throws IOException {
+        out.append(JsonParser.LBRACKET);
+        boolean inline = oneline || list.isEmpty() || isJavaElement(list);
+        boolean first = true;
+        for (Object element : list) {
+            separator(first, inline, indent + 1);
+            value(indent + 1, element);
+            first = false;
+        }
+        close(JsonParser.RBRACKET, first || inline, indent);
+    }
+
+    private void map(int indent, Map<?, ?> map) throws IOException {
+        out.append(JsonParser.LBRACE);
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            separator(first, oneline, indent + 1);
+            string(String.valueOf(entry.getKey()), out);
+            out.append(JsonParser.COLON);
+            if (!oneline) {
+                out.append(' ');
+            }
+            value(indent + 1, entry.getValue());
+            first = false;
+        }
+        close(JsonParser.RBRACE, first || oneline, indent);
+    }
+
+    private void bean(int indent, Object bean) throws IOException {
+        out.append(JsonParser.LBRACE);
+        boolean first = true;
+        for (Member member : MEMBERS.get(bean.getClass())) {
+            final Object value;
+            try {
+                value = member.field.get(bean);
+            } catch (IllegalAccessException e) {
+                LOGGER.log(Level.WARNING, String.format("Get field value '%s.%s' error : %s.",
+                        bean.getClass().getSimpleName(), member.field.getName(), e.getMessage()), e);
+                continue;
+            }
+            if (value == null) {
+                continue;
+            }
+            separator(first, oneline, indent + 1);
+            out.append(oneline ? member.compact : member.pretty);
+            value(indent + 1, value);
+            first = false;
+        }
+        close(JsonParser.RBRACE, first || oneline, indent);
+    }
+
+    private void separator(boolean first, boolean inline, int indent) throws IOException {
+        if (!first) {
+            out.append(JsonParser.COMMA);
+        }
+        if (!inline) {
+            out.append('\n');
+            out.append(indent(indent));
+        } else if (!first && !oneline) {
+            out.append(' ');
+        }
+    }
+
+    private void close(char bracket, boolean inline, int indent) throws IOException {
+        if (!inline) {
+            out.append('\n');
+            out.append(indent(indent));
+        }
+        out.append(bracket);
+    }
+
+    private static boolean isJavaElement(Collection<?> list) {
+        final Iterator<?> it = list.iterator();
+        final Object element = it.next();
+        return element == null || Reflections.isJavaType(element.getClass());
+    }
+
+    static String indent(int num) {
+        if (num < INDENTS.length) {
+            return INDENTS[num];
+        }
+        final StringBuilder sb = new StringBuilder(num * 2);
+        for (int i = 0; i < num; i++) {
+            sb.append("  ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a quoted string with the JSON escapes.
+     */
+    static void string(String value, Appendable out) throws IOException {
+        out.append(JsonParser.QUOTE);
+        final int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            final String escape;
+            switch (c) {
+            case '"':
+                escape = "\\\"";
+                break;
+            case '\\':
+                escape = "\\\\";
+                break;
+            case '\n':
+                escape = "\\n";
+                break;
+            case '\r':
+                escape = "\\r";
+                break;
+            case '\t':
+                escape = "\\t";
+                break;
+            default:
+                if (c >= ' ') {
+                    continue;
+                }
+                escape = null;
+                break;
+            }
+            if (start < i) {
+                out.append(value, start, i);
+            }
+            start = i + 1;
+            if (escape != null) {
+                out.append(escape);
+            } else {
+                out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+        }
+        if (start < length) {
+            out.append(value, start, length);
+        }
+        out.append(JsonParser.QUOTE);
+    }
+}
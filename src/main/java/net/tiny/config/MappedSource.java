@@ -0,0 +1,147 @@
+package net.tiny.config;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped local configuration file.
+ * The lines are scanned on the UTF-8 bytes, only the ranges of keys and values are decoded to string.
+ * The ASCII delimiters never appear in the multi-byte sequences of UTF-8.
+ *
+ */
+final class MappedSource {
+
+    private final ByteBuffer buffer;
+    private final ByteBuffer view;
+    private byte[] scratch = new byte[128];
+    private int next;
+    private int start;
+    private int end;
+    private int lineNumber = 0;
+
+    MappedSource(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.view = buffer.duplicate();
+        int begin = buffer.position();
+        // Skip UTF-8 BOM
+        if (buffer.remaining() >= 3
+                && buffer.get(begin) == (byte)0xEF
+                && buffer.get(begin + 1) == (byte)0xBB
+                && buffer.get(begin + 2) == (byte)0xBF) {
+            begin += 3;
+        }
+        this.next = begin;
+    }
+
+    static MappedSource map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping is valid after the channel was closed
+            return new MappedSource(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+        }
+    }
+
+    /**
+     * Move to the next line, the line separator '\n' or "\r\n" is excluded.
+     */
+    boolean nextLine() {
+        final int limit = buffer.limit();
+        if (next >= limit) {
+            return false;
+        }
+        start = next;
+        int i = start;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        next = i + 1;
+        if (i > start && buffer.get(i - 1) == '\r') {
+            i--;
+        }
+        end = i;
+        lineNumber++;
+        return true;
+    }
+
+    int start() {
+        return start;
+    }
+
+    int end() {
+        return end;
+    }
+
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    byte at(int index) {
+        return buffer.get(index);
+    }
+
+    int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode the bytes in range as UTF-8 string.
+     */
+    String decode(int from, int to) {
+        final int length = to - from;
+        if (length <= 0) {
+            return "";
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length << 1)];
+        }
+        // Cast to Buffer for the Java 8 runtime
+        ((Buffer)view).limit(to);
+        ((Buffer)view).position(from);
+        view.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode the bytes in range without the leading and trailing white spaces.
+     */
+    String trim(int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        return decode(from, to);
+    }
+
+    /**
+     * Decode all the rest bytes as a reader, for the formats which need a char stream.
+     */
+    Reader reader() {
+        ((Buffer)view).limit(buffer.limit());
+        ((Buffer)view).position(next);
+        final CharBuffer chars = StandardCharsets.UTF_8.decode(view);
+        return new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+    }
+}
@@ -2,6 +2,7 @@ package net.tiny.config;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -20,7 +21,8 @@ public class Mapper {
         Set<String> names = map.keySet();
         for(String name : names) {
             try {
-                Field field = Reflections.getDeclaredField(type, name);
+                Injector injector = Injector.field(type, name);
+                Field field = injector.field;
                 Object value = map.get(name);
                 if (value instanceof Map) {
                     //Recursion call set member properties
@@ -44,10 +46,12 @@ public class Mapper {
                         }
                     }
                 }
-                setFieldValue(target, field, value);
+                injector.inject(target, value);
             } catch (NoSuchFieldException e) {
                 // Ignore
                 LOGGER.warning(String.format("No such field '%s.%s'", type.getSimpleName(), name));
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getMessage(), e);
             } catch (IllegalArgumentException e) {
                 e.printStackTrace();
                 // Ignore
@@ -105,10 +109,4 @@ public class Mapper {
         return converter.convert(value, type);
     }
 
-    private static void setFieldValue(Object obj, Field field, Object value) throws IllegalArgumentException, IllegalAccessException {
-        field.setAccessible(true);
-        field.set(obj, value);
-        field.setAccessible(false);
-    }
-
 }
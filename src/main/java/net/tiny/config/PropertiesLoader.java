@@ -8,6 +8,7 @@ import java.io.PrintStream;
 import java.io.Reader;
 import java.io.StreamTokenizer;
 import java.io.StringReader;
+import java.nio.file.Path;
 import java.util.Properties;
 import java.util.logging.Logger;
 
@@ -81,6 +82,34 @@ public class PropertiesLoader {
     }
 
 
+
+    /**
+     * Load a local configuration file by memory-mapped.
+     * YAML is scanned on the UTF-8 bytes directly, the other formats are decoded at once without buffered readers.
+     */
+    public static Properties load(Path path, ContextHandler.Type type, PropertiesSupport.Listener listener) {
+        try {
+            final MappedSource source = MappedSource.map(path);
+            Properties properties = null;
+            switch(type) {
+            case HOCON:
+                properties = HoconLoader.load(source.reader(), listener);
+                break;
+            case JSON:
+                properties = JsonLoader.load(source.reader(), listener);
+                break;
+            case YAML:
+                properties = YamlLoader.read(source, listener).get();
+                break;
+            case PROPERTIES:
+                properties = PropertiesLoader.load(source.reader(), listener);
+                break;
+            }
+            return properties;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex.getMessage(), ex);
+        }
+    }
     static StreamTokenizer createStreamTokenizer(Reader reader) {
         StreamTokenizer tokenizer = new StreamTokenizer(reader);
         tokenizer.resetSyntax();
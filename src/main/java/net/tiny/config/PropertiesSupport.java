@@ -6,7 +6,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.function.Supplier;
 import java.util.logging.Level;
-import java.util.logging.Logger;
+
+import net.tiny.logging.LazyLogger;
 
 public class PropertiesSupport implements Supplier<Properties> {
 
@@ -74,14 +75,14 @@ public class PropertiesSupport implements Supplier<Properties> {
     }
 
     public static class Monitor implements Listener {
-        private static Logger LOGGER = Logger.getLogger(Listener.class.getName());
+        private static LazyLogger LOGGER = LazyLogger.getLogger(Listener.class.getName());
         Level level = Level.INFO;
         @Override
         public void property(String method, String key, String value) {
             if (null != value) {
-                LOGGER.log(level, String.format("[BOOT] Properties.%s('%s','%s')", method, key, value));
+                LOGGER.log(level, "[BOOT] Properties.%s('%s','%s')", method, key, value);
             } else {
-                LOGGER.log(level, String.format("[BOOT] Properties.%s('%s')", method, key));
+                LOGGER.log(level, "[BOOT] Properties.%s('%s')", method, key);
             }
         }
     }
@@ -12,6 +12,7 @@ public class YamlLoader {
     protected static Logger LOGGER = Logger.getLogger(PropertiesLoader.class.getName());
 
     final static  String VAR_REGEX = "^[$][{][\\p{Alnum}[.][$][{][}]]+[}]$";
+    private final static Pattern VAR_PATTERN = Pattern.compile(VAR_REGEX);
     private final static char LIST_HYPHEN = '-';
     private final static char COMMENT_EXCITE = '#';
     private final static char COLON = ':';
@@ -24,11 +25,10 @@ public class YamlLoader {
     }
 
     static StringBuffer getPrekey(StringBuffer buffer, int level) {
-        char[] array = buffer.toString().toCharArray();
         int c = 0;
         int len = 0;
         while(c < level) {
-            if(array[len++] == '.')
+            if(buffer.charAt(len++) == '.')
                 c++;
         }
         buffer.setLength(len);
@@ -40,15 +40,7 @@ public class YamlLoader {
     }
 
     public static PropertiesSupport read(Reader reader, PropertiesSupport.Listener listener) throws IOException {
-        final PropertiesSupport support = new PropertiesSupport(listener);
-        String key = null;
-        String value = null;
-        int level = 0;
-        int lastBlanks = 0;
-        int blanks = 0;
-        StringBuffer prekey = new StringBuffer();
-        boolean hyphen = false;
-
+        final Entries entries = new Entries(new PropertiesSupport(listener));
         LineNumberReader lineReader = new LineNumberReader(reader);
         String line;
         while((line = lineReader.readLine()) != null) {
@@ -63,20 +55,7 @@ public class YamlLoader {
             if (pos != -1) {
                 String prefix = line.substring(0, pos);
                 if (prefix.trim().isEmpty()) {
-                    hyphen = true;
-                    if (value.isEmpty()) {
-                        //value = value.concat("[");
-                    } else {
-                        value = value.concat(",");
-                    }
-                    String var  = line.substring(pos+2).trim();
-                    if (Pattern.matches(YamlLoader.VAR_REGEX, var)) {
-                        value = value.concat(var);
-                    } else {
-                        value = value.concat("\"")
-                                .concat(var)
-                                .concat("\"");
-                    }
+                    entries.item(line.substring(pos+2).trim());
                     continue;
                 }
             }
@@ -87,20 +66,94 @@ public class YamlLoader {
                 LOGGER.warning(String.format("Illegal yaml format whitout colon. %d: '%s'", lineReader.getLineNumber(), line));
                 continue;
             }
+            String key = line.substring(0, pos);
+            entries.entry(getFirstBlanks(key), key.trim(), line.substring(pos+1).trim());
+        }
+        return entries.end();
+    }
+
+    /**
+     * Read the memory-mapped YAML on bytes, only the keys and values are decoded.
+     */
+    static PropertiesSupport read(MappedSource source, PropertiesSupport.Listener listener) {
+        final Entries entries = new Entries(new PropertiesSupport(listener));
+        while (source.nextLine()) {
+            final int start = source.start();
+            int end = source.end();
+            int pos = source.indexOf(COMMENT_EXCITE, start, end); //#
+            if (pos != -1) {
+                end = pos;
+            }
+            if (end == start)
+                continue;
+
+            pos = source.indexOf(LIST_HYPHEN, start, end); // -
+            if (pos != -1 && source.isBlank(start, pos)) {
+                entries.item(source.trim(Math.min(pos+2, end), end));
+                continue;
+            }
+
+            pos = source.indexOf(COLON, start, end); //:
+            if (pos == -1) {
+                LOGGER.warning(String.format("Illegal yaml format whitout colon. %d: '%s'",
+                        source.lineNumber(), source.decode(start, end)));
+                continue;
+            }
+            int blanks = 0;
+            while (start + blanks < pos && source.at(start + blanks) == ' ') {
+                blanks++;
+            }
+            entries.entry(blanks, source.trim(start, pos), source.trim(pos+1, end));
+        }
+        return entries.end();
+    }
+
+    /**
+     * The nested keys and hyphen lists of YAML lines.
+     */
+    private static final class Entries {
+        final PropertiesSupport support;
+        String key = null;
+        String value = null;
+        int level = 0;
+        int lastBlanks = 0;
+        int blanks = 0;
+        StringBuffer prekey = new StringBuffer();
+        boolean hyphen = false;
+
+        Entries(PropertiesSupport support) {
+            this.support = support;
+        }
 
+        void item(String var) {
+            hyphen = true;
+            if (value.isEmpty()) {
+                //value = value.concat("[");
+            } else {
+                value = value.concat(",");
+            }
+            if (VAR_PATTERN.matcher(var).matches()) {
+                value = value.concat(var);
+            } else {
+                value = value.concat("\"")
+                        .concat(var)
+                        .concat("\"");
+            }
+        }
 
+        void entry(int indent, String name, String text) {
             if (hyphen) { // hyphen list end
                 hyphen = false;
                 // put hyphen list value
                 level = blanks / 2;
                 prekey = getPrekey(prekey, level);
-                key = prekey.toString().concat(key.trim());
+                key = prekey.toString().concat(key);
                 support.put(key, value);
             }
 
-            key = line.substring(0, pos);
-            value = line.substring(pos+1).trim();
-            blanks = getFirstBlanks(key);
+            key = name;
+            value = text;
+            blanks = indent;
             if(blanks < lastBlanks) {
                 level = level - ((lastBlanks - blanks) / 2);
                 prekey = getPrekey(prekey, level);
@@ -111,25 +164,25 @@ public class YamlLoader {
             }
             if(value.isEmpty()) {
                 level++;
-                prekey.append(key.trim()).append(".");
+                prekey.append(key).append(".");
             } else {
-                key = prekey.toString().concat(key.trim());
+                key = prekey.toString().concat(key);
                 support.setProperty(key, value);
             }
             lastBlanks = blanks;
         }
 
-        if (hyphen) { // The last hyphen list to close
-            hyphen = false;
-            // put hyphen list value
-            //value = value.concat("]");
-            if (level > 0)
-                prekey = getPrekey(prekey, (level-1));
-            key = prekey.toString().concat(key.trim());
-            support.setProperty(key, value);
+        PropertiesSupport end() {
+            if (hyphen) { // The last hyphen list to close
+                hyphen = false;
+                // put hyphen list value
+                //value = value.concat("]");
+                if (level > 0)
+                    prekey = getPrekey(prekey, (level-1));
+                key = prekey.toString().concat(key);
+                support.setProperty(key, value);
+            }
+            return support;
         }
-        return support;
     }
-
-
 }
@@ -0,0 +1,382 @@
+package net.tiny.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * An asynchronous handler, the logging threads put the records into a bounded ring buffer
+ * without any lock, a background thread drains them in batches to stdout (until INFO) and stderr.
+ * The records of {@link JsonFormatter} are written as bytes without a string.
+ * <code>
+ * logging.handler.output = async
+ * logging.handler.capacity = 8192
+ * logging.handler.batch = 256
+ * logging.handler.flush = record | batch | interval
+ * logging.handler.interval = 1000
+ * logging.handler.overflow = block | drop | drop-below-level
+ * logging.handler.overflow.level = WARNING
+ * </code>
+ */
+public class AsyncHandler extends Handler {
+
+    public enum Flush {
+        /** Flush after every record */
+        RECORD,
+        /** Flush after every drained batch */
+        BATCH,
+        /** Flush at most once per interval */
+        INTERVAL
+    }
+
+    public enum Overflow {
+        /** The logging thread waits until the buffer has a free slot */
+        BLOCK,
+        /** The record is discarded */
+        DROP,
+        /** The record below the overflow level is discarded, the others wait */
+        DROP_BELOW_LEVEL;
+
+        static Overflow of(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_BATCH = 256;
+    private static final long DEFAULT_INTERVAL = 1000L;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private final Level line = Level.INFO;
+
+    private final RingBuffer buffer;
+    private final int batch;
+    private final Flush flush;
+    private final long interval;
+    private final Overflow overflow;
+    private final Level overflowLevel;
+    private final OutputStream out;
+    private final OutputStream err;
+    private final Thread drainer;
+    private final AtomicLong dropped = new AtomicLong();
+    /** The highest position the flushing threads wait for */
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushedCondition = flushLock.newCondition();
+
+    private volatile boolean closed = false;
+    private volatile boolean idle = false;
+    private volatile long flushed = 0L;
+
+    public AsyncHandler() {
+        this(new Properties());
+    }
+
+    public AsyncHandler(Properties handlers) {
+        this(handlers, System.out, System.err);
+    }
+
+    public AsyncHandler(Properties handlers, OutputStream stdout, OutputStream stderr) {
+        this.buffer = new RingBuffer(Integer.parseInt(handlers.getProperty("capacity", String.valueOf(DEFAULT_CAPACITY))));
+        this.batch = Math.max(1, Integer.parseInt(handlers.getProperty("batch", String.valueOf(DEFAULT_BATCH))));
+        this.flush = Flush.valueOf(handlers.getProperty("flush", Flush.BATCH.name()).trim().toUpperCase());
+        this.interval = Long.parseLong(handlers.getProperty("interval", String.valueOf(DEFAULT_INTERVAL)));
+        this.overflow = Overflow.of(handlers.getProperty("overflow", Overflow.BLOCK.name()));
+        this.overflowLevel = Level.parse(handlers.getProperty("overflow.level", Level.WARNING.getName()));
+        this.out = new BufferedOutputStream(stdout, 8192);
+        this.err = new BufferedOutputStream(stderr, 8192);
+        setFormatter(new RecordFormatter());
+        this.drainer = new Thread(this::drain, "async-logging");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // The caller is inferred lazily from the stack, it must be done on the logging thread
+        record.getSourceClassName();
+        if (!buffer.offer(record)) {
+            if (overflow == Overflow.DROP
+                    || (overflow == Overflow.DROP_BELOW_LEVEL && record.getLevel().intValue() < overflowLevel.intValue())) {
+                dropped.incrementAndGet();
+                return;
+            }
+            for (int spins = 0; !buffer.offer(record); spins++) {
+                if (closed) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                LockSupport.unpark(drainer);
+                if (spins < 100) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(1000L);
+                }
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Wait until the records published before are written and flushed.
+     */
+    @Override
+    public void flush() {
+        final long target = buffer.published();
+        if (flushed >= target) {
+            return;
+        }
+        requested.accumulateAndGet(target, Math::max);
+        // The drainer signals only if some threads are waiting
+        waiters.incrementAndGet();
+        flushLock.lock();
+        try {
+            LockSupport.unpark(drainer);
+            while (flushed < target && drainer.isAlive()) {
+                // Timed, the drainer may be stopped
+                flushedCondition.await(IDLE_NANOS, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushLock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of the records discarded on overflow
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        long reported = 0L;
+        long lastFlush = System.currentTimeMillis();
+        boolean dirty = false;
+        while (true) {
+            int count = 0;
+            LogRecord record;
+            while (count < batch && (record = buffer.poll()) != null) {
+                write(record);
+                count++;
+                if (flush == Flush.RECORD) {
+                    flushWriters();
+                }
+            }
+            if (count > 0) {
+                dirty = true;
+            }
+            final long lost = dropped.get();
+            if (lost > reported) {
+                write(err, String.format("%d log records were dropped on overflow.%n", lost - reported));
+                reported = lost;
+                dirty = true;
+            }
+            final boolean empty = buffer.isEmpty();
+            if (dirty && (flush != Flush.INTERVAL
+                    || empty && requested.get() > flushed
+                    || System.currentTimeMillis() - lastFlush >= interval)) {
+                flushWriters();
+                lastFlush = System.currentTimeMillis();
+                dirty = false;
+            }
+            if (!dirty) {
+                flushed(buffer.consumed());
+            }
+            if (!empty) {
+                continue;
+            }
+            if (closed) {
+                // A producer may have claimed a slot but not yet written the record
+                if (buffer.consumed() == buffer.published()) {
+                    flushWriters();
+                    flushed(buffer.consumed());
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+            idle = true;
+            if (buffer.isEmpty() && requested.get() <= flushed) {
+                LockSupport.parkNanos(this, dirty ? TimeUnit.MILLISECONDS.toNanos(interval) : IDLE_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    private void flushed(long position) {
+        if (position == flushed) {
+            return;
+        }
+        flushed = position;
+        if (waiters.get() > 0) {
+            flushLock.lock();
+            try {
+                flushedCondition.signalAll();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void write(LogRecord record) {
+        final OutputStream stream = record.getLevel().intValue() <= line.intValue() ? out : err;
+        final Formatter formatter = getFormatter();
+        if (formatter instanceof JsonFormatter) {
+            try {
+                ((JsonFormatter) formatter).write(record, stream);
+            } catch (IOException ex) {
+                reportError(null, ex, ErrorManager.WRITE_FAILURE);
+            } catch (Exception ex) {
+                reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            }
+            return;
+        }
+        final String message;
+        try {
+            message = formatter.format(record);
+        } catch (Exception ex) {
+            reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        write(stream, message);
+    }
+
+    private void write(OutputStream stream, String message) {
+        try {
+            stream.write(message.getBytes(charset()));
+        } catch (IOException ex) {
+            reportError(null, ex, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private Charset charset() {
+        final String encoding = getEncoding();
+        return (encoding != null) ? Charset.forName(encoding) : Charset.defaultCharset();
+    }
+
+    private void flushWriters() {
+        try {
+            out.flush();
+            err.flush();
+        } catch (IOException ex) {
+            reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * A bounded multi producers and single consumer ring buffer.
+     * A producer claims a slot by CAS on the tail, the sequence of the slot publishes the record to the consumer
+     * and releases the slot to the producers of the next lap.
+     */
+    static final class RingBuffer {
+        private final LogRecord[] records;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head = 0L;
+
+        RingBuffer(int capacity) {
+            int size = 2;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            records = new LogRecord[size];
+            sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+            mask = size - 1;
+        }
+
+        boolean offer(LogRecord record) {
+            long position;
+            int index;
+            while (true) {
+                position = tail.get();
+                index = (int) position & mask;
+                final long difference = sequences.get(index) - position;
+                if (difference == 0L) {
+                    if (tail.compareAndSet(position, position + 1L)) {
+                        break;
+                    }
+                } else if (difference < 0L) {
+                    // Full, the slot is not consumed in the last lap
+                    return false;
+                }
+            }
+            records[index] = record;
+            sequences.lazySet(index, position + 1L);
+            return true;
+        }
+
+        /**
+         * Only called by the consumer thread.
+         */
+        LogRecord poll() {
+            final long position = head;
+            final int index = (int) position & mask;
+            if (sequences.get(index) != position + 1L) {
+                return null;
+            }
+            final LogRecord record = records[index];
+            records[index] = null;
+            sequences.lazySet(index, position + records.length);
+            head = position + 1L;
+            return record;
+        }
+
+        boolean isEmpty() {
+            final long position = head;
+            return sequences.get((int) position & mask) != position + 1L;
+        }
+
+        long published() {
+            return tail.get();
+        }
+
+        long consumed() {
+            return head;
+        }
+
+        int capacity() {
+            return records.length;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package net.tiny.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Format a log record to a JSON line, the fields are encoded as UTF-8 into a byte buffer of the thread.
+ * <code>
+ * logging.handler.formatter = json
+ *
+ * {"time":"2019-04-04T02:49:47.242Z","level":"INFO","thread":1,"logger":"net.tiny.Sample","class":"net.tiny.Sample",
+ *  "method":"call","message":"Message","thrown":"java.lang.IllegalStateException: error","stack":["net.tiny.Sample.call(Sample.java:10)"]}
+ * </code>
+ */
+public class JsonFormatter extends Formatter {
+
+    private static final int MAX_REC_SIZE = 256;
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private static final DateTimeFormatter SECOND_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+
+    // The field names are escaped and encoded once
+    private static final byte[] TIME    = ascii("{\"time\":\"");
+    private static final byte[] LEVEL   = ascii("Z\",\"level\":\"");
+    private static final byte[] THREAD  = ascii("\",\"thread\":");
+    private static final byte[] LOGGER  = ascii(",\"logger\":");
+    private static final byte[] CLASS   = ascii(",\"class\":");
+    private static final byte[] METHOD  = ascii(",\"method\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] THROWN  = ascii(",\"thrown\":");
+    private static final byte[] STACK   = ascii(",\"stack\":[");
+    private static final byte[] NULL    = ascii("null");
+    private static final byte[] END     = ascii("}\n");
+    private static final byte[] HEX     = ascii("0123456789abcdef");
+
+    private static final ThreadLocal<ByteBuilder> BUFFERS = ThreadLocal.withInitial(() -> new ByteBuilder(MAX_REC_SIZE));
+
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, new byte[0]);
+
+    @Override
+    public String format(final LogRecord record) {
+        final ByteBuilder buffer = encode(record);
+        return new String(buffer.bytes, 0, buffer.length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the JSON line of the record to the stream without a string.
+     */
+    public void write(final LogRecord record, final OutputStream out) throws IOException {
+        final ByteBuilder buffer = encode(record);
+        out.write(buffer.bytes, 0, buffer.length);
+    }
+
+    @Override
+    public String formatMessage(final LogRecord record) {
+        return RecordFormatter.message(record);
+    }
+
+    ByteBuilder encode(final LogRecord record) {
+        ByteBuilder buffer = BUFFERS.get();
+        if (buffer.bytes.length > MAX_BUFFER_SIZE) {
+            // Do not keep the buffer of a huge record
+            buffer = new ByteBuilder(MAX_REC_SIZE);
+            BUFFERS.set(buffer);
+        }
+        buffer.length = 0;
+        final long millis = record.getMillis();
+        buffer.append(TIME);
+        appendTime(buffer, millis);
+        buffer.append(LEVEL);
+        buffer.appendEscaped(RecordFormatter.level(record.getLevel()));
+        buffer.append(THREAD);
+        buffer.appendLong(RecordFormatter.threadId(record));
+        buffer.append(LOGGER);
+        buffer.appendString(record.getLoggerName());
+        buffer.append(CLASS);
+        buffer.appendString(record.getSourceClassName());
+        buffer.append(METHOD);
+        buffer.appendString(record.getSourceMethodName());
+        buffer.append(MESSAGE);
+        buffer.appendString(formatMessage(record));
+        final Throwable throwable = record.getThrown();
+        if (throwable != null) {
+            buffer.append(THROWN);
+            buffer.appendString(throwable.toString());
+            buffer.append(STACK);
+            final StackTraceElement[] traces = throwable.getStackTrace();
+            for (int i = 0; i < traces.length; i++) {
+                if (i > 0) {
+                    buffer.append((byte) ',');
+                }
+                appendTrace(buffer, traces[i]);
+            }
+            buffer.append((byte) ']');
+        }
+        buffer.append(END);
+        return buffer;
+    }
+
+    private void appendTime(final ByteBuilder buffer, final long millis) {
+        final long second = Math.floorDiv(millis, 1000L);
+        Timestamp cached = timestamp;
+        if (cached.second != second) {
+            cached = new Timestamp(second, ascii(SECOND_FORMATTER.format(Instant.ofEpochSecond(second))));
+            timestamp = cached;
+        }
+        buffer.append(cached.prefix);
+        final int fraction = (int) Math.floorMod(millis, 1000L);
+        buffer.append((byte) ('0' + fraction / 100));
+        buffer.append((byte) ('0' + fraction / 10 % 10));
+        buffer.append((byte) ('0' + fraction % 10));
+    }
+
+    /**
+     * Same as 'StackTraceElement#toString()' of Java 8 in a JSON string.
+     */
+    private static void appendTrace(final ByteBuilder buffer, final StackTraceElement trace) {
+        buffer.append((byte) '"');
+        buffer.appendEscaped(trace.getClassName());
+        buffer.append((byte) '.');
+        buffer.appendEscaped(trace.getMethodName());
+        buffer.append((byte) '(');
+        final String file = trace.getFileName();
+        if (trace.isNativeMethod()) {
+            buffer.appendAscii("Native Method");
+        } else if (file == null) {
+            buffer.appendAscii("Unknown Source");
+        } else {
+            buffer.appendEscaped(file);
+            if (trace.getLineNumber() >= 0) {
+                buffer.append((byte) ':');
+                buffer.appendLong(trace.getLineNumber());
+            }
+        }
+        buffer.append((byte) ')');
+        buffer.append((byte) '"');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A growable byte array, the strings are escaped and encoded into it directly.
+     */
+    static final class ByteBuilder {
+        byte[] bytes;
+        int length;
+
+        ByteBuilder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void ensure(int size) {
+            if (length + size > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + size));
+            }
+        }
+
+        void append(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+        }
+
+        void append(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        void appendAscii(String value) {
+            final int size = value.length();
+            ensure(size);
+            for (int i = 0; i < size; i++) {
+                bytes[length++] = (byte) value.charAt(i);
+            }
+        }
+
+        void appendLong(long value) {
+            if (value < 0L) {
+                append((byte) '-');
+            } else {
+                value = -value;
+            }
+            // Accumulate negatively to cover Long.MIN_VALUE
+            ensure(19);
+            final int start = length;
+            do {
+                bytes[length++] = (byte) ('0' - (value % 10L));
+                value /= 10L;
+            } while (value != 0L);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                final byte b = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = b;
+            }
+        }
+
+        /**
+         * Append a JSON string or null.
+         */
+        void appendString(String value) {
+            if (value == null) {
+                append(NULL);
+                return;
+            }
+            append((byte) '"');
+            appendEscaped(value);
+            append((byte) '"');
+        }
+
+        void appendEscaped(String value) {
+            final int size = value.length();
+            // A char is 3 bytes at most in UTF-8, or 6 bytes as an escaped control char
+            ensure(size * 6);
+            for (int i = 0; i < size; i++) {
+                final char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        bytes[length++] = '\\';
+                    }
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    bytes[length++] = '\\';
+                    switch (c) {
+                    case '\n':
+                        bytes[length++] = 'n';
+                        break;
+                    case '\r':
+                        bytes[length++] = 'r';
+                        break;
+                    case '\t':
+                        bytes[length++] = 't';
+                        break;
+                    default:
+                        bytes[length++] = 'u';
+                        bytes[length++] = '0';
+                        bytes[length++] = '0';
+                        bytes[length++] = HEX[c >> 4];
+                        bytes[length++] = HEX[c & 0xF];
+                        break;
+                    }
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int code = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | (code >> 18));
+                    bytes[length++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (code & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // A broken surrogate pair
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    /**
+     * The encoded part of a second, it is immutable to be shared by threads.
+     */
+    private static final class Timestamp {
+        final long second;
+        final byte[] prefix;
+
+        Timestamp(long second, byte[] prefix) {
+            this.second = second;
+            this.prefix = prefix;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package net.tiny.logging;
+
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A facade of the java logger, the message is formatted only if the level is loggable.
+ * The calls with up to two arguments do not allocate an argument array.
+ * The templates are the same as {@link String#format(String, Object...)}.
+ * <code>
+ * private static final LazyLogger LOGGER = LazyLogger.getLogger(Main.class.getName());
+ * LOGGER.log(Level.FINE, "[BOOT] Cached '%s' = '%s'", name, value);
+ * LOGGER.log(Level.FINE, () -> dump(value));
+ * </code>
+ */
+public final class LazyLogger {
+
+    private static final String CLASS_NAME = LazyLogger.class.getName();
+
+    private final Logger logger;
+
+    private LazyLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static LazyLogger getLogger(String name) {
+        return new LazyLogger(Logger.getLogger(name));
+    }
+
+    public String getName() {
+        return logger.getName();
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void log(Level level, String message) {
+        if (logger.isLoggable(level)) {
+            publish(level, message, null);
+        }
+    }
+
+    public void log(Level level, String format, Object arg) {
+        if (logger.isLoggable(level)) {
+            publish(level, String.format(format, arg), null);
+        }
+    }
+
+    public void log(Level level, String format, Object arg1, Object arg2) {
+        if (logger.isLoggable(level)) {
+            publish(level, String.format(format, arg1, arg2), null);
+        }
+    }
+
+    public void log(Level level, String format, Object... args) {
+        if (logger.isLoggable(level)) {
+            publish(level, args.length == 0 ? format : String.format(format, args), null);
+        }
+    }
+
+    public void log(Level level, Supplier<String> message) {
+        if (logger.isLoggable(level)) {
+            publish(level, message.get(), null);
+        }
+    }
+
+    public void log(Level level, Throwable thrown, String format, Object... args) {
+        if (logger.isLoggable(level)) {
+            publish(level, args.length == 0 ? format : String.format(format, args), thrown);
+        }
+    }
+
+    public void log(Level level, Throwable thrown, Supplier<String> message) {
+        if (logger.isLoggable(level)) {
+            publish(level, message.get(), thrown);
+        }
+    }
+
+    public void fine(String message) {
+        log(Level.FINE, message);
+    }
+
+    public void fine(String format, Object arg) {
+        log(Level.FINE, format, arg);
+    }
+
+    public void fine(String format, Object arg1, Object arg2) {
+        log(Level.FINE, format, arg1, arg2);
+    }
+
+    public void fine(String format, Object... args) {
+        log(Level.FINE, format, args);
+    }
+
+    public void config(String message) {
+        log(Level.CONFIG, message);
+    }
+
+    public void config(String format, Object arg) {
+        log(Level.CONFIG, format, arg);
+    }
+
+    public void config(String format, Object arg1, Object arg2) {
+        log(Level.CONFIG, format, arg1, arg2);
+    }
+
+    public void config(String format, Object... args) {
+        log(Level.CONFIG, format, args);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public void info(String format, Object arg) {
+        log(Level.INFO, format, arg);
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        log(Level.INFO, format, arg1, arg2);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    public void warning(String message) {
+        log(Level.WARNING, message);
+    }
+
+    public void warning(String format, Object arg) {
+        log(Level.WARNING, format, arg);
+    }
+
+    public void warning(String format, Object arg1, Object arg2) {
+        log(Level.WARNING, format, arg1, arg2);
+    }
+
+    public void warning(String format, Object... args) {
+        log(Level.WARNING, format, args);
+    }
+
+    public void severe(String message) {
+        log(Level.SEVERE, message);
+    }
+
+    public void severe(String format, Object arg) {
+        log(Level.SEVERE, format, arg);
+    }
+
+    public void severe(String format, Object arg1, Object arg2) {
+        log(Level.SEVERE, format, arg1, arg2);
+    }
+
+    public void severe(String format, Object... args) {
+        log(Level.SEVERE, format, args);
+    }
+
+    /**
+     * The java logger takes this facade as the caller, so the caller is given explicitly.
+     */
+    private void publish(Level level, String message, Throwable thrown) {
+        String sourceClass = null;
+        String sourceMethod = null;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            if (!CLASS_NAME.equals(frame.getClassName())) {
+                sourceClass = frame.getClassName();
+                sourceMethod = frame.getMethodName();
+                break;
+            }
+        }
+        if (null == thrown) {
+            logger.logp(level, sourceClass, sourceMethod, message);
+        } else {
+            logger.logp(level, sourceClass, sourceMethod, message, thrown);
+        }
+    }
+}
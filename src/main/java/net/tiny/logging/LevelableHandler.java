@@ -6,6 +6,8 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.LogRecord;
@@ -30,6 +32,15 @@ public class LevelableHandler extends StreamHandler {
         stderrHandler.setLevel(Level.WARNING);
     }
 
+    @Override
+    public void setFormatter(Formatter newFormatter) {
+        super.setFormatter(newFormatter);
+        // Called by the super constructor before the stderr handler is made
+        if (null != stderrHandler) {
+            stderrHandler.setFormatter(newFormatter);
+        }
+    }
+
     /**
      * The only method we really change to check whether the message
      * is smaller than maxlevel.
@@ -52,10 +63,10 @@ public class LevelableHandler extends StreamHandler {
      * Configuration logging
      * 根据应用配置文件，加载动态生成的 ‘logging.properties’，并重新配置日志的设定
      * <code>
-     * logging.handler.output = file | console | none
+     * logging.handler.output = file | mapped | console | async | none
      * logging.handler.level = INFO
      * logging.handler.pattern = %h/logging-test%u.log
-     * logging.handler.formatter = net.tiny.logging.RecordFormatter
+     * logging.handler.formatter = net.tiny.logging.RecordFormatter | json
      * logging.level.all = ALL
      * logging.level.ch.qos = WARN
      * logging.level.sun.net = WARN
@@ -91,6 +102,8 @@ public class LevelableHandler extends StreamHandler {
         String formatter = null;
         String level = "INFO";
         String out = handlers.getProperty("output");
+        final boolean async = "async".equalsIgnoreCase(out);
+        final boolean mapped = "mapped".equalsIgnoreCase(out);
         if ("file".equalsIgnoreCase(out)) {
             handler = FileHandler.class.getName();
         } else if ("console".equalsIgnoreCase(out)) {
@@ -107,6 +120,9 @@ public class LevelableHandler extends StreamHandler {
             if ("output".equals(t)) continue;
             parameter = handlers.getProperty(t);
             if ("formatter".equals(t)) {
+                if ("json".equalsIgnoreCase(parameter)) {
+                    parameter = JsonFormatter.class.getName();
+                }
                 formatter = parameter;
             }
             if ("pattern".equals(t)) {
@@ -124,15 +140,6 @@ public class LevelableHandler extends StreamHandler {
         }
 
         try {
-            // Because can't load a custom log handler from 'logging.properties'
-            // Setting LevelableHandler into root logger.
-            LevelableHandler levelable = null;
-            if (null == handler) {
-                // Use a custom logger handler
-                levelable = new LevelableHandler();
-                levelable.setLevel(Level.parse(level));
-            }
-
             // Configuration logging properties
             final LogManager logManager = LogManager.getLogManager();
             logManager.reset();
@@ -140,11 +147,28 @@ public class LevelableHandler extends StreamHandler {
             logManager.readConfiguration(is);
             is.close();
 
+            // Because can't load a custom log handler from 'logging.properties'
+            // Setting LevelableHandler into root logger.
+            // The previous handlers were closed by reset, they may use the same file
+            Handler levelable = null;
+            if (null == handler) {
+                // Use a custom logger handler
+                if (mapped) {
+                    levelable = new MappedFileHandler(handlers);
+                } else {
+                    levelable = async ? new AsyncHandler(handlers) : new LevelableHandler();
+                }
+                levelable.setLevel(Level.parse(level));
+                if (null != formatter) {
+                    levelable.setFormatter((Formatter) Class.forName(formatter).getDeclaredConstructor().newInstance());
+                }
+            }
+
             if (null != levelable) {
                 final Logger logger = getRootLogger(logManager);
                 logger.addHandler(levelable);
             }
-        } catch (IOException e) {
+        } catch (IOException | ReflectiveOperationException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
     }
@@ -160,4 +184,4 @@ public class LevelableHandler extends StreamHandler {
         }
         return root;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
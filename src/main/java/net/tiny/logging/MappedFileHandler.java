@@ -0,0 +1,429 @@
+package net.tiny.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * A rolling file handler, the records are appended into a memory mapped region of the file.
+ * The records are formatted without lock, only the copy into the region is serialized.
+ * The file is forced to the disk by group commits, once per interval or on {@link #flush()}.
+ * A region is kept until it is full, the replaced regions are unmapped without waiting for the garbage collection.
+ * A mapped region grows the file, the unused part of the last region is cut on roll and on close,
+ * the NUL padding left by a killed process is cut on open.
+ * <code>
+ * logging.handler.output = mapped
+ * logging.handler.pattern = %h/logging%g.log
+ * logging.handler.limit = 104857600
+ * logging.handler.count = 10
+ * logging.handler.append = true
+ * logging.handler.rotate = daily | hourly
+ * logging.handler.region = 8388608
+ * logging.handler.interval = 1000
+ * </code>
+ */
+public class MappedFileHandler extends Handler {
+
+    private static final String DEFAULT_PATTERN = "%h/java%u.log";
+    private static final int DEFAULT_REGION = 8 * 1024 * 1024;
+    private static final long DEFAULT_INTERVAL = 1000L;
+
+    /** sun.misc.Unsafe of Java 9+, null on Java 8 */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            final Class<?> type = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Java 8, the cleaner of the buffer is used
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final String pattern;
+    private final long limit;
+    private final int count;
+    private final ChronoUnit rotate;
+    private final int regionSize;
+    private final long interval;
+    private final Object commitLock = new Object();
+    private final Thread committer;
+
+    // Guarded by this
+    private FileChannel channel;
+    /** The region mapped from the end of the records, kept until it is full */
+    private MappedByteBuffer region;
+    private long size;
+    private long nextRotation = Long.MAX_VALUE;
+    private long appended = 0L;
+    private final List<Retired> retired = new ArrayList<>();
+
+    private volatile long committed = 0L;
+    private volatile boolean closed = false;
+
+    public MappedFileHandler() throws IOException {
+        this(new Properties());
+    }
+
+    public MappedFileHandler(Properties handlers) throws IOException {
+        this.pattern = handlers.getProperty("pattern", DEFAULT_PATTERN).replaceAll("\"", "").replaceAll("'", "");
+        this.limit = Long.parseLong(handlers.getProperty("limit", "0"));
+        this.count = Math.max(1, Integer.parseInt(handlers.getProperty("count", "1")));
+        final String period = handlers.getProperty("rotate");
+        if (null == period || period.isEmpty()) {
+            this.rotate = null;
+        } else if ("daily".equalsIgnoreCase(period)) {
+            this.rotate = ChronoUnit.DAYS;
+        } else if ("hourly".equalsIgnoreCase(period)) {
+            this.rotate = ChronoUnit.HOURS;
+        } else {
+            throw new IllegalArgumentException(String.format("Unknown rotate period '%s'", period));
+        }
+        this.regionSize = Integer.parseInt(handlers.getProperty("region", String.valueOf(DEFAULT_REGION)));
+        this.interval = Long.parseLong(handlers.getProperty("interval", String.valueOf(DEFAULT_INTERVAL)));
+        setFormatter(new RecordFormatter());
+        synchronized (this) {
+            final Path file = generation(0);
+            // Left by a killed process
+            final long length = trim(file);
+            if (!Boolean.parseBoolean(handlers.getProperty("append", "false")) && length > 0L) {
+                shift();
+            }
+            open(System.currentTimeMillis());
+        }
+        this.committer = new Thread(this::commitLoop, "mapped-log-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        final Formatter formatter = getFormatter();
+        final byte[] bytes;
+        final int length;
+        try {
+            if (formatter instanceof JsonFormatter) {
+                // The buffer of this thread, it is copied before the next record of the thread
+                final JsonFormatter.ByteBuilder buffer = ((JsonFormatter) formatter).encode(record);
+                bytes = buffer.bytes;
+                length = buffer.length;
+            } else {
+                bytes = formatter.format(record).getBytes(charset());
+                length = bytes.length;
+            }
+        } catch (Exception ex) {
+            reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                if ((limit > 0L && size > 0L && size + length > limit) || record.getMillis() >= nextRotation) {
+                    roll(record.getMillis());
+                }
+                append(bytes, length);
+            } catch (IOException ex) {
+                reportError(null, ex, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Force the appended records to the disk.
+     * The threads waiting for a commit are done by a single force of the first one.
+     */
+    @Override
+    public void flush() {
+        final long target;
+        synchronized (this) {
+            target = appended;
+        }
+        commit(target);
+    }
+
+    @Override
+    public void close() {
+        synchronized (commitLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                unmap(region);
+                region = null;
+                retired.add(new Retired(channel, size));
+                try {
+                    commit(null, retired);
+                } catch (IOException ex) {
+                    reportError(null, ex, ErrorManager.CLOSE_FAILURE);
+                }
+            }
+        }
+        committer.interrupt();
+    }
+
+    private void commit(long target) {
+        synchronized (commitLock) {
+            if (committed >= target) {
+                return;
+            }
+            final long upto;
+            final FileChannel current;
+            final List<Retired> files;
+            try {
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    upto = appended;
+                    current = channel;
+                    files = new ArrayList<>(retired);
+                    retired.clear();
+                }
+                // The writers are not blocked while forcing
+                commit(current, files);
+            } catch (IOException ex) {
+                reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+                return;
+            }
+            committed = upto;
+        }
+    }
+
+    /**
+     * Force the current file, then cut the unused part of the last region of the rolled files and close them.
+     * The records written by the mapped regions are forced by the channel.
+     */
+    private static void commit(FileChannel current, List<Retired> files) throws IOException {
+        if (null != current) {
+            current.force(false);
+        }
+        for (Retired file : files) {
+            file.channel.truncate(file.size);
+            file.channel.force(false);
+            file.channel.close();
+        }
+        files.clear();
+    }
+
+    private void commitLoop() {
+        while (!closed) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+    }
+
+    private void append(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (null == region || !region.hasRemaining()) {
+                unmap(region);
+                region = channel.map(FileChannel.MapMode.READ_WRITE, size + offset, regionSize);
+            }
+            final int chunk = Math.min(length - offset, region.remaining());
+            region.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+        size += length;
+        appended += length;
+    }
+
+    private void open(long now) throws IOException {
+        final Path file = generation(0);
+        final Path parent = file.toAbsolutePath().getParent();
+        if (null != parent) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        region = null;
+        if (null != rotate) {
+            final ZoneId zone = ZoneId.systemDefault();
+            nextRotation = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), zone)
+                    .truncatedTo(rotate).plus(1L, rotate).atZone(zone).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Cut the NUL padding of the last mapped region, the file was not closed by a killed process.
+     *
+     * @return The size of the records, 0 if the file is not found
+     */
+    static long trim(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0L;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long end = channel.size();
+            scan:
+            while (end > 0L) {
+                final long position = Math.max(0L, end - buffer.capacity());
+                ((Buffer) buffer).clear();
+                ((Buffer) buffer).limit((int) (end - position));
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                    // Fill the chunk
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) != 0) {
+                        end = position + i + 1;
+                        break scan;
+                    }
+                }
+                end = position;
+            }
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+            return end;
+        }
+    }
+
+    private void roll(long now) throws IOException {
+        // Unmapped before the file is moved and cut
+        unmap(region);
+        region = null;
+        retired.add(new Retired(channel, size));
+        shift();
+        open(now);
+    }
+
+    /**
+     * Rename the file of generation N to N+1, the last generation is deleted.
+     */
+    private void shift() throws IOException {
+        Files.deleteIfExists(generation(count - 1));
+        for (int i = count - 2; i >= 0; i--) {
+            final Path file = generation(i);
+            if (Files.exists(file)) {
+                Files.move(file, generation(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Same pattern as FileHandler, '%t' temporary directory, '%h' user home,
+     * '%g' generation, '%u' unique number (always 0) and '%%'.
+     */
+    Path generation(int generation) {
+        final StringBuilder name = new StringBuilder();
+        boolean sawGeneration = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '%' && i + 1 < pattern.length()) {
+                final char n = pattern.charAt(++i);
+                switch (n) {
+                case 't':
+                    name.append(System.getProperty("java.io.tmpdir"));
+                    break;
+                case 'h':
+                    name.append(System.getProperty("user.home"));
+                    break;
+                case 'g':
+                    name.append(generation);
+                    sawGeneration = true;
+                    break;
+                case 'u':
+                    name.append('0');
+                    break;
+                case '%':
+                    name.append('%');
+                    break;
+                default:
+                    name.append(c).append(n);
+                    break;
+                }
+            } else {
+                name.append(c == '/' ? File.separatorChar : c);
+            }
+        }
+        if (!sawGeneration && count > 1) {
+            name.append('.').append(generation);
+        }
+        return Paths.get(name.toString());
+    }
+
+    /**
+     * Release the mapping now, a file can not be cut or moved on Windows while it is mapped.
+     * The region must not be accessed after this.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (null == buffer) {
+            return;
+        }
+        try {
+            if (null != INVOKE_CLEANER) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                // ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+                final Method method = buffer.getClass().getMethod("cleaner");
+                method.setAccessible(true);
+                final Object cleaner = method.invoke(buffer);
+                if (null != cleaner) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Not supported, released by the garbage collection
+        }
+    }
+
+    private static final class Retired {
+        final FileChannel channel;
+        final long size;
+
+        Retired(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+    }
+
+    private Charset charset() {
+        final String encoding = getEncoding();
+        return (encoding != null) ? Charset.forName(encoding) : Charset.defaultCharset();
+    }
+}
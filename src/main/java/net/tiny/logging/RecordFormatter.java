@@ -1,39 +1,59 @@
 package net.tiny.logging;
 
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
+/**
+ * The formatter has no lock, the records are formatted into a buffer of the thread.
+ * The timestamp of the same second and the short class names are reused.
+ */
 public class RecordFormatter extends Formatter {
 
     private static final int MAX_REC_SIZE = 128;
     private static final int MAX_ORG_SIZE = 30; //40
+    private static final int MAX_BUFFER_SIZE = 8192;
+    private static final int MAX_CACHED_NAMES = 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(MAX_REC_SIZE));
 
     private int limit = MAX_ORG_SIZE;
+    private final Map<String, String> shortNames = new ConcurrentHashMap<>();
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, "");
+
     @Override
-    public synchronized String format(final LogRecord record) {
+    public String format(final LogRecord record) {
         //2019-04-04 11:49:47.242	DEBUG	net.tiny.rest.test.LoggingTest#testLoggingFormat	[FINEST] Message
         //2019-04-04T11:41:24.576	INFO	cls:n.t.s.controller.HelloWorldResource     	[REST] HelloWorldResource-1874879719
-        final StringBuffer message = new StringBuffer(MAX_REC_SIZE);
-        long millis = record.getMillis();
-        String time = String.format("%tF %<tT.%<tL", millis);
-        message.append(time);
+        StringBuilder message = BUFFERS.get();
+        if (message.capacity() > MAX_BUFFER_SIZE) {
+            // Do not keep the buffer of a huge record
+            message = new StringBuilder(MAX_REC_SIZE);
+            BUFFERS.set(message);
+        }
+        message.setLength(0);
+        appendTime(message, record.getMillis());
         //message.append(' ');
         //message.append(record.getThreadID());
         message.append('\t');
         message.append(level(record.getLevel()));
-        message.append("\t");
+        message.append('\t');
         String className = record.getSourceClassName();
         if(className == null) {
             className = record.getLoggerName();
         }
 
-        message.append(shortClassName(limit, className));
+        message.append(shortClassName(className));
 
         message.append('.');
         String methodName = record.getSourceMethodName();
         message.append(methodName != null ? methodName : "-");
-        message.append(" [" + record.getThreadID() + "]");
+        message.append(" [").append(threadId(record)).append(']');
         //message.append("(" + record.getSequenceNumber() + ")"); //TODO BUG on jar
 
         message.append('\t');
@@ -52,6 +72,64 @@ public class RecordFormatter extends Formatter {
         return message.toString();
     }
 
+    /**
+     * Same as the standard one without the lock of the formatter.
+     */
+    @Override
+    public String formatMessage(final LogRecord record) {
+        return message(record);
+    }
+
+    static String message(final LogRecord record) {
+        String format = record.getMessage();
+        final ResourceBundle catalog = record.getResourceBundle();
+        if (catalog != null && format != null) {
+            try {
+                format = catalog.getString(format);
+            } catch (MissingResourceException ex) {
+                // Use the message as is
+            }
+        }
+        final Object[] parameters = record.getParameters();
+        if (format == null || parameters == null || parameters.length == 0) {
+            return format;
+        }
+        try {
+            // Only the message with a parameter like '{0}' is formatted
+            final int fence = format.length() - 1;
+            for (int index = format.indexOf('{'); index >= 0 && index < fence; index = format.indexOf('{', index + 1)) {
+                final char digit = format.charAt(index + 1);
+                if (digit >= '0' && digit <= '9') {
+                    return MessageFormat.format(format, parameters);
+                }
+            }
+            return format;
+        } catch (Exception ex) {
+            return format;
+        }
+    }
+
+    /**
+     * Append 'yyyy-MM-dd HH:mm:ss.SSS', the part of the second is formatted once per second.
+     */
+    void appendTime(final StringBuilder message, final long millis) {
+        final long second = Math.floorDiv(millis, 1000L);
+        Timestamp cached = timestamp;
+        if (cached.second != second) {
+            cached = new Timestamp(second, String.format("%tF %<tT", millis));
+            timestamp = cached;
+        }
+        message.append(cached.prefix).append('.');
+        final int fraction = (int) Math.floorMod(millis, 1000L);
+        if (fraction < 100) {
+            message.append('0');
+        }
+        if (fraction < 10) {
+            message.append('0');
+        }
+        message.append(fraction);
+    }
+
     String getrReference(final LogRecord record) {
         String className = record.getSourceClassName();
         int pos = className.lastIndexOf(".");
@@ -61,26 +139,57 @@ public class RecordFormatter extends Formatter {
         return String.format("(%s.java:%d)", className, record.getSequenceNumber());
     }
 
+    private String shortClassName(final String className) {
+        if (className == null) {
+            return "null";
+        }
+        String name = shortNames.get(className);
+        if (name == null) {
+            name = shortClassName(limit, className);
+            // The logger names may be made dynamically, keep the cache bounded
+            if (shortNames.size() < MAX_CACHED_NAMES) {
+                shortNames.put(className, name);
+            }
+        }
+        return name;
+    }
+
     String shortClassName(final int maxLength, final String className) {
-        final String[] array = className.split("[.]");
         int size = className.length();
-        int i = 0;
-        while (size > maxLength) {
-            size -= array[i].length() - 1;
-            array[i] = array[i].substring(0, 1);
-            i++;
-        }
-        final StringBuffer buffer = new StringBuffer();
-        for(String e : array) {
-            if(buffer.length() > 0) {
+        if (size <= maxLength) {
+            return className;
+        }
+        final StringBuilder buffer = new StringBuilder(maxLength);
+        int from = 0;
+        while (from < className.length()) {
+            int to = className.indexOf('.', from);
+            if (to < 0) {
+                to = className.length();
+            }
+            if (buffer.length() > 0) {
                 buffer.append('.');
             }
-            buffer.append(e);
+            if (size > maxLength && to > from) {
+                // Abbreviate the package to the first char
+                size -= to - from - 1;
+                buffer.append(className.charAt(from));
+            } else {
+                buffer.append(className, from, to);
+            }
+            from = to + 1;
         }
         return buffer.toString();
     }
 
-    private String level(Level level) {
+    /**
+     * LogRecord.getLongThreadID() replaces it since Java 16, it is not found on Java 8.
+     */
+    @SuppressWarnings("deprecation")
+    static int threadId(final LogRecord record) {
+        return record.getThreadID();
+    }
+
+    static String level(Level level) {
         String mark = level.toString();
         switch(mark) {
         case "FINEST":
@@ -112,4 +221,17 @@ public class RecordFormatter extends Formatter {
         }
         return mark;
     }
+
+    /**
+     * The formatted part of a second, it is immutable to be shared by threads.
+     */
+    private static final class Timestamp {
+        final long second;
+        final String prefix;
+
+        Timestamp(long second, String prefix) {
+            this.second = second;
+            this.prefix = prefix;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package net.tiny.boot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class BootExecutorsTest {
+
+    @Test
+    public void testExecutorModes() throws Exception {
+        ExecutorService executor = BootExecutors.create(null);
+        assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(0, ((ThreadPoolExecutor) executor).getCorePoolSize());
+        executor.shutdown();
+
+        executor = BootExecutors.create(" Fixed( 2 ) ");
+        assertEquals(2, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        executor.shutdown();
+
+        executor = BootExecutors.create("forkjoin");
+        assertTrue(executor instanceof ForkJoinPool);
+        executor.shutdown();
+
+        assertThrows(IllegalArgumentException.class, () -> BootExecutors.create("fixed(0)"));
+        assertThrows(IllegalArgumentException.class, () -> BootExecutors.create("cached"));
+    }
+
+    @Test
+    public void testVirtualMode() throws Exception {
+        // Platform threads before JDK 21
+        ExecutorService executor = BootExecutors.create("virtual");
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            calls.add(() -> {
+                Thread.sleep(10L);
+                return isVirtual(Thread.currentThread());
+            });
+        }
+        for (Future<Boolean> answer : executor.invokeAll(calls)) {
+            assertEquals(BootExecutors.isVirtualSupported(), answer.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.SECONDS));
+
+        Thread thread = BootExecutors.threadFactory("virtual").newThread(() -> {});
+        assertEquals(BootExecutors.isVirtualSupported(), isVirtual(thread));
+        assertFalse(isVirtual(BootExecutors.threadFactory("fixed(2)").newThread(() -> {})));
+    }
+
+    static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException ex) {
+            return false;
+        }
+    }
+}
@@ -45,4 +45,58 @@ public class ConsoleCaptureTest {
 
         assertEquals(resultErr, err);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBoundedCapture() throws Exception {
+        ConsoleCapture.out.enable(true, 64);
+        try {
+            assertFalse(ConsoleCapture.out.contains("DONE"));
+            assertTrue(ConsoleCapture.out.contains(""));
+            for (int i = 0; i < 1000; i++) {
+                System.out.println("line-" + i);
+            }
+            String history = ConsoleCapture.out.getHistory();
+            assertEquals(64, history.length());
+            assertTrue(history.endsWith("line-999" + LFCR));
+            assertTrue(ConsoleCapture.out.contains("line-999"));
+            // Overwritten before the search
+            assertFalse(ConsoleCapture.out.contains("line-10" + LFCR));
+
+            // Matched across the writes
+            System.out.print("DO");
+            System.out.write('N');
+            System.out.print("E");
+            System.out.println();
+            assertTrue(ConsoleCapture.out.contains("DONE"));
+            for (int i = 0; i < 100; i++) {
+                System.out.println("after-" + i);
+            }
+            // Still found after overwritten
+            assertTrue(ConsoleCapture.out.contains("DONE"));
+
+            ConsoleCapture.out.clear();
+            assertEquals("", ConsoleCapture.out.getHistory());
+            assertFalse(ConsoleCapture.out.contains("DONE"));
+        } finally {
+            ConsoleCapture.out.enable(false);
+        }
+    }
+
+    @Test
+    public void testMatcher() throws Exception {
+        ConsoleCapture.Matcher matcher = new ConsoleCapture.Matcher("aab".getBytes());
+        matcher.feed("xaa".getBytes(), 0, 3);
+        assertFalse(matcher.found);
+        matcher.feed((byte) 'a');
+        assertFalse(matcher.found);
+        matcher.feed((byte) 'b');
+        assertTrue(matcher.found);
+
+        matcher = new ConsoleCapture.Matcher("abab".getBytes());
+        matcher.feed("abaabab".getBytes(), 0, 7);
+        assertTrue(matcher.found);
+        matcher = new ConsoleCapture.Matcher("abab".getBytes());
+        matcher.feed("abaaba".getBytes(), 0, 6);
+        assertFalse(matcher.found);
+    }
+}
\ No newline at end of file
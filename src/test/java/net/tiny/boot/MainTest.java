@@ -1,10 +1,16 @@
 package net.tiny.boot;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
@@ -87,6 +93,102 @@ public class MainTest {
         ApplicationContext context = new Main(args).run();
         Thread.sleep(3500L);
         assertNull(context.getLastError());
+        // The beans are created one by one
+        assertFalse(phaseNames(context).contains("remains.parallel"));
+    }
+
+    @Test
+    public void testParallelProfile() throws Exception {
+        String[] args = new String[] {"-v", "-p", "parallel"};
+        ApplicationContext context = new Main(args).run(false);
+        assertEquals(Integer.valueOf(0), context.getFuture().get(10L, TimeUnit.SECONDS));
+        assertNull(context.getLastError());
+        List<String> names = phaseNames(context);
+        assertTrue(names.contains("remains.parallel"));
+        assertTrue(names.contains("create Two"));
+        assertTrue(names.contains("create Three"));
+        assertTrue(ConsoleCapture.out.contains("Task1 'one1' end"));
+        assertTrue(ConsoleCapture.out.contains("Task2 'Two2' end."));
+        assertTrue(ConsoleCapture.out.contains("Task3 'Three' end."));
+    }
+
+    static List<String> phaseNames(ApplicationContext context) {
+        List<String> names = new ArrayList<>();
+        for (StartupReport.Phase phase : context.getStartupReport().getPhases()) {
+            names.add(phase.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testExecutorMode() throws Exception {
+        String[] args = new String[] {"-v", "-p", "virtual"};
+        ApplicationContext context = new Main(args).run(false);
+        assertEquals(Integer.valueOf(0), context.getFuture().get(10L, TimeUnit.SECONDS));
+        assertNull(context.getLastError());
+        assertTrue(ConsoleCapture.out.contains("Task2 'Two2' end."));
+        assertTrue(ConsoleCapture.out.contains("Task3 'Three' end."));
+    }
+
+    @Test
+    public void testStartupReport() throws Exception {
+        String[] args = new String[] {"-p", "virtual"};
+        ApplicationContext context = new Main(args).run(false);
+        StartupReport report = context.getStartupReport();
+        List<String> names = new ArrayList<>();
+        for (StartupReport.Phase phase : report.getPhases()) {
+            names.add(phase.getName());
+        }
+        assertTrue(names.contains("discovery.resource"));
+        assertTrue(names.contains("parse"));
+        assertTrue(names.contains("vcap"));
+        assertTrue(names.contains("remains.parallel"));
+        assertTrue(names.contains("remains"));
+        // Grouped by the bean class
+        assertTrue(names.contains("create Two"));
+        assertTrue(names.contains("create Three"));
+
+        assertEquals(Integer.valueOf(0), context.getFuture().get(10L, TimeUnit.SECONDS));
+        List<StartupReport.Phase> phases = report.getPhases();
+        // The slowest is the task sleeping 3s
+        assertEquals("task Three", phases.get(0).getName());
+        assertTrue(phases.get(0).getDuration(TimeUnit.MILLISECONDS) >= 3000L);
+        assertEquals("task Two", phases.get(1).getName());
+        for (int i = 1; i < phases.size(); i++) {
+            assertTrue(phases.get(i - 1).getDuration(TimeUnit.NANOSECONDS) >= phases.get(i).getDuration(TimeUnit.NANOSECONDS));
+        }
+        assertTrue(report.getElapsed(TimeUnit.MILLISECONDS) >= 3000L);
+        String text = report.toString();
+        assertTrue(text.startsWith("Startup report - " + phases.size() + " phase(s) in "));
+        assertTrue(text.contains("task Three"));
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        Path dir = Files.createTempDirectory("main");
+        Path file = dir.resolve("app-watch.properties");
+        try {
+            Files.write(file, "watch = true\napp.name = first\n".getBytes(StandardCharsets.UTF_8));
+            String[] args = new String[] {"-p", "watch", "-f", dir.resolve("app").toString()};
+            Main main = new Main(args);
+            main.run(false);
+            assertEquals("first", main.getConfig().getString("app.name"));
+            // Appended keys are kept by the reload
+            main.getConfig().append("vcap.services.db.password", "secret");
+
+            Files.write(file, "watch = true\napp.name = second\n".getBytes(StandardCharsets.UTF_8));
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (!"second".equals(main.getConfig().getString("app.name"))
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(100L);
+            }
+            assertEquals("second", main.getConfig().getString("app.name"));
+            assertEquals("secret", main.getConfig().getString("vcap.services.db.password"));
+            assertEquals(0, main.exit());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
     }
 
     @Test
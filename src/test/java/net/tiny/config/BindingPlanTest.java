@@ -0,0 +1,56 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+public class BindingPlanTest {
+
+    @Test
+    public void testCachedPlan() throws Exception {
+        BindingPlan plan = BindingPlan.of(ConfigurationTest.SampleConfig.class);
+        assertSame(plan, BindingPlan.of(ConfigurationTest.SampleConfig.class));
+        // SampleConfig fields and AbstractConfig fields
+        assertEquals(7, plan.fields.size());
+        BindingPlan.FieldBinding url = plan.fields.stream()
+                .filter(f -> "url".equals(f.name))
+                .findFirst()
+                .get();
+        assertNotNull(url.setter);
+        assertEquals("setUrl", url.setter.getName());
+        assertNotNull(url.converter);
+
+        BindingPlan.SetterBinding cost = plan.setters.stream()
+                .filter(s -> "cost".equals(s.name))
+                .findFirst()
+                .get();
+        assertEquals(Integer.class, cost.type);
+    }
+
+    @Test
+    public void testNoSetterField() throws Exception {
+        BindingPlan plan = BindingPlan.of(ConfigurationTest.One.class);
+        assertEquals(1, plan.fields.size());
+        assertNull(plan.fields.get(0).setter);
+        assertEquals(0, plan.setters.size());
+    }
+
+    @Test
+    public void testReweaveManyBeans() throws Exception {
+        Properties properties = new Properties();
+        for (int i = 0; i < 100; i++) {
+            properties.setProperty("one" + i + ".class", ConfigurationTest.One.class.getName());
+            properties.setProperty("one" + i + ".name", "One" + i);
+        }
+        Configuration config = new Configuration(properties, null);
+        for (int i = 0; i < 100; i++) {
+            ConfigurationTest.One one = config.getAs("one" + i, ConfigurationTest.One.class);
+            assertEquals("One" + i, one.getName());
+        }
+    }
+}
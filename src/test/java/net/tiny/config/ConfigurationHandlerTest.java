@@ -2,18 +2,27 @@ package net.tiny.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.StringReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -320,4 +329,55 @@ public class ConfigurationHandlerTest {
         configuration.writeTo(System.out);
     }
 
+
+    @Test
+    public void testWatchReload() throws Exception {
+        Path dir = Files.createTempDirectory("watch");
+        Path main = dir.resolve("app.conf");
+        Path part = dir.resolve("part.conf");
+        ConfigurationHandler handler = new ConfigurationHandler();
+        try {
+            Files.write(part, ("timeout = 10" + LS).getBytes(StandardCharsets.UTF_8));
+            Files.write(main, ("app {" + LS
+                    + "  name = sample" + LS
+                    + "  include file(\"" + part.toString().replace('\\', '/') + "\")" + LS
+                    + "}" + LS).getBytes(StandardCharsets.UTF_8));
+
+            BlockingQueue<Configuration.Diff> diffs = new LinkedBlockingQueue<>();
+            handler.setListener(new ContextHandler.Listener() {
+                @Override
+                public void created(Object bean, Class<?> beanClass) {}
+                @Override
+                public void parsed(String type, String resource, int size) {}
+                @Override
+                public void cached(String name, Object value, boolean config) {}
+                @Override
+                public void reloaded(String resource, Configuration.Diff diff) {
+                    diffs.add(diff);
+                }
+            });
+            handler.setResource(main.toString());
+            handler.parse();
+            Configuration config = handler.getConfiguration();
+            assertEquals(10, config.getInteger("app.timeout"));
+            Configuration app = config.getConfiguration("app");
+            handler.watch();
+            assertTrue(handler.isWatching());
+
+            // Change the included file
+            Files.write(part, ("timeout = 30" + LS).getBytes(StandardCharsets.UTF_8));
+            Configuration.Diff diff = diffs.poll(10L, TimeUnit.SECONDS);
+            assertNotNull(diff);
+            assertEquals(Collections.singleton("app.timeout"), diff.getChanged());
+            assertTrue(diff.getInvalidated().contains("app."));
+            assertSame(config, handler.getConfiguration());
+            assertEquals(30, config.getInteger("app.timeout"));
+            assertNotSame(app, config.getConfiguration("app"));
+        } finally {
+            handler.unwatch();
+            Files.deleteIfExists(main);
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(dir);
+        }
+    }
 }
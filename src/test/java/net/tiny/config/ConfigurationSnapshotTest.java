@@ -0,0 +1,125 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationSnapshotTest {
+
+    @Test
+    public void testWriteRead() throws Exception {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path snapshot = dir.resolve("app.yml.snapshot");
+        try {
+            Properties properties = new Properties();
+            properties.setProperty("app.name", "名前");
+            properties.setProperty("app.alias", "名前");
+            properties.setProperty("app.url", "http://${app.host}/");
+            properties.setProperty("app.empty", "");
+            ConfigurationSnapshot.write(properties, 1234L, snapshot);
+
+            assertEquals(properties, ConfigurationSnapshot.read(snapshot, 1234L));
+            // Source was changed
+            assertNull(ConfigurationSnapshot.read(snapshot, 5678L));
+
+            // Broken snapshot
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length - 12] ^= 0x01;
+            Files.write(snapshot, bytes);
+            assertNull(ConfigurationSnapshot.read(snapshot, 1234L));
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testHandlerLoadSnapshot() throws Exception {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path source = dir.resolve("app.yml");
+        Path snapshot = ConfigurationSnapshot.snapshotOf(source);
+        try {
+            Files.write(source, "app:\n  name: sample\n  size: 10\n".getBytes(StandardCharsets.UTF_8));
+            ConfigurationSnapshot.compile(source, snapshot);
+            assertTrue(Files.exists(snapshot));
+
+            List<String> types = new ArrayList<>();
+            ConfigurationHandler handler = new ConfigurationHandler();
+            handler.setListener(new ContextHandler.Listener() {
+                @Override
+                public void created(Object bean, Class<?> beanClass) {}
+                @Override
+                public void parsed(String type, String resource, int size) {
+                    types.add(type);
+                }
+                @Override
+                public void cached(String name, Object value, boolean config) {}
+            });
+            handler.setResource(source.toString());
+            handler.parse();
+            assertEquals("SNAPSHOT", types.get(0));
+            assertEquals("sample", handler.getConfiguration().getString("app.name"));
+            assertEquals(10, handler.getConfiguration().getInteger("app.size"));
+
+            // The snapshot is ignored after the source was changed
+            Files.write(source, "app:\n  name: changed\n".getBytes(StandardCharsets.UTF_8));
+            handler.parse();
+            assertEquals("YAML", types.get(1));
+            assertEquals("changed", handler.getConfiguration().getString("app.name"));
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testIncludedChanged() throws Exception {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path source = dir.resolve("app.conf");
+        Path part = dir.resolve("part.conf");
+        Path snapshot = ConfigurationSnapshot.snapshotOf(source);
+        try {
+            Files.write(part, "name = sample\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(source, ("app {\n  include file(\"" + part.toAbsolutePath() + "\")\n  size = 10\n}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            ConfigurationSnapshot.compile(source, snapshot);
+
+            List<String> types = new ArrayList<>();
+            ConfigurationHandler handler = new ConfigurationHandler();
+            handler.setListener(new ContextHandler.Listener() {
+                @Override
+                public void created(Object bean, Class<?> beanClass) {}
+                @Override
+                public void parsed(String type, String resource, int size) {
+                    types.add(type);
+                }
+                @Override
+                public void cached(String name, Object value, boolean config) {}
+            });
+            handler.setResource(source.toString());
+            handler.parse();
+            assertEquals("SNAPSHOT", types.get(0));
+            assertEquals("sample", handler.getConfiguration().getString("app.name"));
+
+            // The snapshot is ignored after the included file was changed
+            Files.write(part, "name = changed\n".getBytes(StandardCharsets.UTF_8));
+            handler.parse();
+            assertEquals("HOCON", types.get(1));
+            assertEquals("changed", handler.getConfiguration().getString("app.name"));
+            assertEquals(10, handler.getConfiguration().getInteger("app.size"));
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
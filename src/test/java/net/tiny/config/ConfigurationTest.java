@@ -1,9 +1,13 @@
 package net.tiny.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -17,11 +21,14 @@ import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
@@ -204,6 +211,37 @@ public class ConfigurationTest {
         assertEquals(8, config.size());
     }
 
+    @Test
+    public void testPrefixKeyIndex() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("app.a.name", "A");
+        properties.setProperty("app.ab.name", "AB");
+        properties.setProperty("app.b.name", "B");
+        properties.setProperty("apple", "Apple");
+        Configuration config = new Configuration(properties, null);
+
+        Properties sub = config.getProperties("app.a");
+        assertEquals(1, sub.size());
+        assertEquals("A", sub.getProperty("name"));
+        assertEquals(3, config.getConfiguration("app").size());
+        assertNull(config.getConfiguration("app.c"));
+
+        config.append("app.c.name", "C");
+        Configuration c = config.getConfiguration("app.c");
+        assertNotNull(c);
+        assertEquals("C", c.getString("name"));
+
+        Properties appends = new Properties();
+        appends.setProperty("app.d.name", "D");
+        config.append(appends);
+        assertEquals("D", config.getProperties("app.d").getProperty("name"));
+        // Cached objects are not listed as property names
+        assertEquals(6, config.getAllPropertyNames().size());
+
+        config.destroy();
+        assertNull(config.getConfiguration("app"));
+    }
+
     @Test
     public void testGetPropertyValue() throws Exception {
         String prop =
@@ -282,6 +320,30 @@ public class ConfigurationTest {
     }
 
 
+    @Test
+    public void testResolvedReferenceCache() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("r0", "root");
+        for (int i = 1; i <= 20; i++) {
+            properties.setProperty("r" + i, "${r" + (i - 1) + "}/" + i);
+        }
+        properties.setProperty("name", "${${key}.name}");
+        properties.setProperty("key", "a");
+        properties.setProperty("a.name", "A");
+        properties.setProperty("b.name", "B");
+        Configuration config = new Configuration(properties, null);
+        // Deep reference chain is not a cycle
+        assertEquals("root/1/2/3/4/5/6/7/8/9/10/11/12/13/14/15/16/17/18/19/20", config.getString("r20"));
+        assertEquals("A", config.getString("name"));
+        assertEquals("A", config.getString("name"));
+        // Invalidated by append
+        config.append("key", "b");
+        assertEquals("B", config.getString("name"));
+        config.append("r0", "top");
+        assertEquals("top/1/2", config.getString("r2"));
+        assertNull(config.getString("none"));
+    }
+
     @Test
     public void testManyReference() throws Exception {
         String prop =
@@ -466,6 +528,34 @@ public class ConfigurationTest {
         assertEquals(1, list.size());
     }
 
+    @Test
+    public void testParallelRemains() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("main", "${holder}, ${two}");
+        properties.setProperty("holder.class", Holder.class.getName());
+        properties.setProperty("holder.one", "${one}");
+        properties.setProperty("one.class", One.class.getName());
+        properties.setProperty("one.name", "One1");
+        properties.setProperty("two.class", Two.class.getName());
+        properties.setProperty("two.name", "Two2");
+        Configuration config = new Configuration(properties, null);
+
+        DependencyGraph graph = config.getDependencyGraph(config.findUnimplements());
+        assertEquals(Collections.singleton("one"), graph.dependencies("holder"));
+        assertTrue(graph.dependencies("two").isEmpty());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Set<String> names = config.remains(pool);
+        pool.shutdown();
+        assertEquals(new TreeSet<>(Arrays.asList("holder", "one", "two")), new TreeSet<>(names));
+        One one = config.getAs("one", One.class);
+        assertEquals("One1", one.getName());
+        assertSame(one, config.getAs("holder", Holder.class).getOne());
+        List<?> main = config.getAs("main", List.class);
+        assertEquals(2, main.size());
+        assertTrue(config.remains().isEmpty());
+    }
+
     @Test
     public void testFilePath() throws Exception {
         System.out.println(FilePath.class.getName());
@@ -592,6 +682,14 @@ public class ConfigurationTest {
         }
     }
 
+    public static class Holder {
+        private One one;
+
+        public One getOne() {
+            return one;
+        }
+    }
+
     public static class Two {
         private String name;
 
@@ -762,6 +860,204 @@ public class ConfigurationTest {
         }
     }
 
+    @Test
+    public void testReload() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("app.name", "sample");
+        prop.setProperty("app.size", "10");
+        prop.setProperty("ref.name", "${app.name}");
+        prop.setProperty("other.size", "5");
+        prop.setProperty("gone", "x");
+        Configuration config = new Configuration(prop, null);
+        Properties app = config.getAs("app", Properties.class);
+        Configuration ref = config.getConfiguration("ref");
+        Configuration other = config.getConfiguration("other");
+        assertEquals("sample", config.getString("ref.name"));
+
+        Properties fresh = new Properties();
+        fresh.setProperty("app.name", "changed");
+        fresh.setProperty("app.size", "10");
+        fresh.setProperty("ref.name", "${app.name}");
+        fresh.setProperty("other.size", "5");
+        fresh.setProperty("added", "y");
+        Configuration.Diff diff = config.reload(fresh);
+        assertEquals(Collections.singleton("app.name"), diff.getChanged());
+        assertEquals(Collections.singleton("added"), diff.getAdded());
+        assertEquals(Collections.singleton("gone"), diff.getRemoved());
+        assertEquals(new TreeSet<>(Arrays.asList("app", "app.", "ref.")), diff.getInvalidated());
+
+        assertEquals("changed", config.getString("app.name"));
+        assertEquals("changed", config.getString("ref.name"));
+        assertEquals("y", config.getString("added"));
+        assertNull(config.getString("gone"));
+        assertNotEquals(app, config.getAs("app", Properties.class));
+        assertNotSame(ref, config.getConfiguration("ref"));
+        // Not affected
+        assertSame(other, config.getConfiguration("other"));
+
+        assertTrue(config.reload(fresh).isEmpty());
+    }
+
+    @Test
+    public void testReloadCachedValue() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("app", "first");
+        prop.setProperty("app.name", "x");
+        prop.setProperty("gone", "y");
+        prop.setProperty("gone.name", "z");
+        prop.setProperty("ref", "${app}");
+        Configuration config = new Configuration(prop, null);
+        Properties app = config.getAs("app", Properties.class);
+        assertEquals("x", app.getProperty("name"));
+        assertNotNull(config.getAs("gone", Properties.class));
+        // The values are replaced by the cached objects
+        assertNull(config.getString("app"));
+        assertNull(config.getString("gone"));
+
+        Properties fresh = new Properties();
+        fresh.setProperty("app", "second");
+        fresh.setProperty("app.name", "x");
+        fresh.setProperty("ref", "${app}");
+        Configuration.Diff diff = config.reload(fresh);
+        assertEquals(Collections.singleton("app"), diff.getChanged());
+        assertEquals(new TreeSet<>(Arrays.asList("gone", "gone.name")), diff.getRemoved());
+        assertTrue(diff.getInvalidated().containsAll(Arrays.asList("app", "gone")));
+        assertEquals("second", config.getString("app"));
+        assertEquals("second", config.getString("ref"));
+        assertFalse(config.contains("gone"));
+
+        // A cached value referred by the source is restored
+        assertNotSame(app, config.getAs("app", Properties.class));
+        fresh.setProperty("app.name", "w");
+        diff = config.reload(fresh);
+        assertEquals(Collections.singleton("app.name"), diff.getChanged());
+        assertTrue(diff.getInvalidated().contains("app"));
+        assertEquals("second", config.getString("app"));
+        assertEquals("w", config.getAs("app", Properties.class).getProperty("name"));
+
+        assertTrue(config.reload(fresh).isEmpty());
+    }
+
+    @Test
+    public void testReloadAppended() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("app.name", "sample");
+        prop.setProperty("vcap.services.db.user", "file");
+        Configuration config = new Configuration(prop, null);
+        // Appended at runtime like the VCAP credentials
+        config.append("vcap.services.db.password", "secret");
+        config.append("vcap.services.db.user", "vcap");
+
+        Properties fresh = new Properties();
+        fresh.setProperty("app.name", "changed");
+        fresh.setProperty("vcap.services.db.user", "file");
+        Configuration.Diff diff = config.reload(fresh);
+        assertEquals(Collections.singleton("app.name"), diff.getChanged());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertTrue(diff.getAdded().isEmpty());
+        assertEquals("changed", config.getString("app.name"));
+        assertEquals("secret", config.getString("vcap.services.db.password"));
+        assertEquals("vcap", config.getString("vcap.services.db.user"));
+
+        fresh.setProperty("vcap.services.db.user", "other");
+        assertTrue(config.reload(fresh).isEmpty());
+        assertEquals("vcap", config.getString("vcap.services.db.user"));
+    }
+
+    @Test
+    public void testConvertedValueCache() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("app.size", "1000");
+        prop.setProperty("app.date", "2016/09/16");
+        prop.setProperty("app.max", "${app.size}");
+        Configuration config = new Configuration(prop, null);
+
+        Integer size = config.getInteger("app.size");
+        assertEquals(1000, size);
+        assertSame(size, config.getInteger("app.size"));
+        assertEquals(1000L, config.getLong("app.size"));
+        assertEquals(1000, config.getInteger("app.max"));
+
+        // Date is mutable, a copy is returned
+        Date date = config.getDate("app.date");
+        date.setTime(0L);
+        assertNotEquals(date, config.getDate("app.date"));
+        assertNotSame(config.getDate("app.date"), config.getDate("app.date"));
+
+        config.append("app.size", "2000");
+        assertEquals(2000, config.getInteger("app.size"));
+        assertEquals(2000, config.getInteger("app.max"));
+    }
+
+    @Test
+    public void testPrimitiveValues() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("app.size", "10");
+        prop.setProperty("app.total", "${app.size}0000000000");
+        prop.setProperty("app.rate", "0.75");
+        prop.setProperty("app.enable", "yes");
+        prop.setProperty("app.ports", "[8080, 8081, 8082]");
+        prop.setProperty("app.limits", "1, 2");
+        prop.setProperty("app.weights", "0.5, 1.5");
+        Configuration config = new Configuration(prop, null);
+
+        assertEquals(10, config.getInt("app.size", -1));
+        assertEquals(-1, config.getInt("app.none", -1));
+        assertEquals(100000000000L, config.getLongValue("app.total", 0L));
+        assertEquals(0.75d, config.getDoubleValue("app.rate", 0d));
+        assertEquals(1d, config.getDoubleValue("app.none", 1d));
+        assertTrue(config.getBooleanValue("app.enable", false));
+        assertTrue(config.getBooleanValue("app.none", true));
+
+        int[] ports = config.getInts("app.ports");
+        assertEquals(3, ports.length);
+        assertEquals(8082, ports[2]);
+        // The cached array is not shared
+        ports[0] = 0;
+        assertEquals(8080, config.getInts("app.ports")[0]);
+        assertEquals(2L, config.getLongs("app.limits")[1]);
+        assertEquals(1.5d, config.getDoubles("app.weights")[1]);
+        assertNull(config.getInts("app.none"));
+
+        config.append("app.size", "20");
+        assertEquals(20, config.getInt("app.size", -1));
+        assertEquals(200000000000L, config.getLongValue("app.total", 0L));
+    }
+
+    @Test
+    public void testCreationFailed() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("broken.class", Broken.class.getName());
+        prop.setProperty("one.class", One.class.getName());
+        prop.setProperty("one.name", "one");
+        List<String> events = new ArrayList<>();
+        Configuration config = new Configuration(prop, new ConfigMonitor() {
+            @Override
+            public void creating(Class<?> beanClass) {
+                events.add("creating " + beanClass.getSimpleName());
+            }
+            @Override
+            public void failed(Class<?> beanClass) {
+                events.add("failed " + beanClass.getSimpleName());
+            }
+            @Override
+            public void created(Object bean, Class<?> beanClass) {
+                events.add("created " + beanClass.getSimpleName());
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> config.getAs("broken", Object.class));
+        assertEquals(Arrays.asList("creating Broken", "failed Broken"), events);
+        events.clear();
+        assertEquals("one", ((One) config.getAs("one", Object.class)).getName());
+        assertEquals(Arrays.asList("creating One", "created One"), events);
+    }
+
+    public static class Broken {
+        public Broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
     static class ConfigMonitor implements ContextHandler.Listener {
 
         @Override
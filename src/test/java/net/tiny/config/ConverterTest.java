@@ -4,6 +4,17 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -152,4 +163,123 @@ public class ConverterTest {
         assertEquals("one", values.get(0));
         assertEquals("two ", values.get(1));
     }
+
+    @Test
+    public void testPrimitiveArrays() {
+        Converter converter = new Converter();
+        assertArrayEquals(new int[] {1, -2, 3, 4}, converter.convertInts("[1, -2 , \"3\", 4.5]"));
+        assertArrayEquals(new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE},
+                converter.convertInts("2147483647,-2147483648"));
+        assertArrayEquals(new long[] {1234567890123L, 0L}, converter.convertLongs("1234567890123, +0"));
+        assertArrayEquals(new long[] {Long.MIN_VALUE}, converter.convertLongs("-9223372036854775808"));
+        assertArrayEquals(new double[] {1.5d, -2.0d}, converter.convertDoubles("[1.5, -2]"), 0d);
+        assertArrayEquals(new int[] {7}, converter.convertInts("7"));
+        assertEquals(0, converter.convertInts("[]").length);
+        assertEquals(0, converter.convertLongs(" ").length);
+        assertArrayEquals(new int[] {1, 2}, converter.convert("[1, 2]", int[].class));
+
+        assertThrows(NumberFormatException.class, () -> converter.convertInts("1, a"));
+        assertThrows(NumberFormatException.class, () -> converter.convertInts("2147483648"));
+        assertThrows(NumberFormatException.class, () -> converter.convertLongs("9223372036854775808"));
+        assertThrows(NumberFormatException.class, () -> converter.convertInts("1,,2"));
+        assertThrows(NumberFormatException.class, () -> converter.convertInts(".5"));
+    }
+
+    @Test
+    public void testListScanner() {
+        List<String> values = Converter.LIST.convert("[a, \"b, c\" , {x: 1, y: [2, 3]}, (4, 5), \"\"]");
+        assertEquals(Arrays.asList("a", "b, c", "{x: 1, y: [2, 3]}", "(4, 5)", ""), values);
+
+        values = Converter.LIST.convert("[{\"name\":\"a\",\"list\":[\"x\",\"y\"]},{\"name\":\"b\"}]");
+        assertEquals(2, values.size());
+        assertEquals("{\"name\":\"a\",\"list\":[\"x\",\"y\"]}", values.get(0));
+
+        // A quoted element with an escaped quote
+        values = Converter.LIST.convert("\"a\\\", b\", c");
+        assertEquals(2, values.size());
+        assertEquals("c", values.get(1));
+
+        assertTrue(Converter.LIST.convert("[]").isEmpty());
+        assertTrue(Converter.LIST.convert("  ").isEmpty());
+        assertEquals(Arrays.asList("a", "", "b"), Converter.LIST.convert("a,,b"));
+        assertEquals(Arrays.asList("[a]", "[b]"), Converter.LIST.convert("[a],[b]"));
+        // Cut list without the closing bracket
+        assertEquals(Arrays.asList("{a}", "{b}"), Converter.LIST.convert("[{a},{b}"));
+
+        assertArrayEquals(new String[] {"x", "y"}, Converter.STRING_ARRAY.convert("x,\ty"));
+        assertEquals(2, Converter.SET.convert("x, y, x").size());
+        assertArrayEquals(new boolean[] {true, false, true, true}, Converter.BOOLEAN_ARRAY.convert("[TRUE, no, yes, 1]"));
+        assertArrayEquals(new float[] {1.5f, 2f}, Converter.FLOAT_ARRAY.convert("1.5, \"2\""), 0f);
+        assertArrayEquals(new int[] {1, 2}, Converter.INTEGER_ARRAY.convert("[\"1\", 2]"));
+
+        // The trailing empty elements are dropped
+        assertEquals(Arrays.asList("a", "b"), Converter.LIST.convert("a, b,"));
+        assertEquals(Arrays.asList("a", "b"), Converter.LIST.convert("[a, b, , ]"));
+        assertEquals(Arrays.asList("a", ""), Converter.LIST.convert("a, \"\","));
+        assertTrue(Converter.LIST.convert(",").isEmpty());
+        assertArrayEquals(new String[] {"x", "y"}, Converter.STRING_ARRAY.convert("x, y,"));
+        assertArrayEquals(new int[] {1, 2}, Converter.INTEGER_ARRAY.convert("1, 2,"));
+        Converter converter = new Converter();
+        assertArrayEquals(new int[] {1, 2}, converter.convertInts("[1, 2,]"));
+        assertArrayEquals(new int[] {1, 2}, converter.convert("1, 2,", int[].class));
+    }
+
+    @Test
+    public void testDateTimes() throws Exception {
+        Converter converter = new Converter();
+        assertEquals(new java.text.SimpleDateFormat("yyyy/MM/dd").parse("2016/09/16"), converter.convert("2016/09/16", Date.class));
+        // Lenient legacy values
+        assertEquals(new java.text.SimpleDateFormat("yyyy/MM/dd").parse("2016/02/30"), converter.convert("2016/02/30", Date.class));
+        assertEquals(new java.text.SimpleDateFormat("yyyy/MM/dd").parse("2016/9/6"), converter.convert("2016/9/6", Date.class));
+        assertThrows(RuntimeException.class, () -> converter.convert("16-09", Date.class));
+
+        assertEquals(LocalDate.of(2016, 9, 16), converter.convert("2016/09/16", LocalDate.class));
+        assertEquals(LocalDate.of(2016, 9, 16), converter.convert("2016-09-16", LocalDate.class));
+        assertEquals(LocalDate.of(2016, 2, 29), converter.convert("2016/02/29", LocalDate.class));
+        // Resolved smartly by the formatter
+        assertEquals(LocalDate.of(2015, 2, 28), converter.convert("2015/02/30", LocalDate.class));
+        assertThrows(DateTimeParseException.class, () -> converter.convert("2016.09.16", LocalDate.class));
+
+        assertEquals(LocalDateTime.of(2016, 9, 16, 9, 15, 30), converter.convert("2016/09/16 09:15:30", LocalDateTime.class));
+        assertEquals(LocalDateTime.of(2016, 9, 16, 9, 15, 30), converter.convert("2016-09-16T09:15:30", LocalDateTime.class));
+        assertEquals(LocalDateTime.of(2016, 9, 16, 9, 15, 30, 500_000_000), converter.convert("2016-09-16T09:15:30.5", LocalDateTime.class));
+        assertThrows(DateTimeParseException.class, () -> converter.convert("2016/09/16 25:15:30", LocalDateTime.class));
+
+        assertEquals(LocalTime.of(9, 15, 30), converter.convert("09:15:30", LocalTime.class));
+        assertEquals(LocalTime.of(9, 15), converter.convert("09:15", LocalTime.class));
+
+        assertEquals(1513346400000L, converter.convert("1513346400000", java.sql.Timestamp.class).getTime());
+        assertEquals(-1000L, converter.convert("-1000", java.sql.Timestamp.class).getTime());
+        assertEquals(Instant.parse("2019-03-14T02:20:28Z").toEpochMilli(),
+                converter.convert("2019-03-14T02:20:28Z", java.sql.Timestamp.class).getTime());
+        java.sql.Timestamp timestamp = converter.convert("2019-03-14T02:20:28.941Z", java.sql.Timestamp.class);
+        assertEquals(Instant.parse("2019-03-14T02:20:28.941Z").toEpochMilli(), timestamp.getTime());
+        assertEquals(941_000_000, timestamp.getNanos());
+    }
+
+    @Test
+    public void testConcurrentTimestamps() throws Exception {
+        Converter converter = new Converter();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int n = 0; n < 8; n++) {
+                final int offset = n;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String value = String.format("2019-03-%02dT02:20:%02dZ", (i + offset) % 28 + 1, i % 60);
+                        if (Instant.parse(value).toEpochMilli() != converter.convert(value, java.sql.Timestamp.class).getTime()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
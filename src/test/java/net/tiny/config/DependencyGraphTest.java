@@ -0,0 +1,43 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void testOrder() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        graph.add("server", new HashSet<>(Arrays.asList("pool", "handler")));
+        graph.add("handler", new HashSet<>(Arrays.asList("pool")));
+        graph.add("pool", Collections.emptySet());
+        graph.add("client", Collections.singleton("client"));
+
+        List<String> order = graph.order();
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("pool") < order.indexOf("handler"));
+        assertTrue(order.indexOf("handler") < order.indexOf("server"));
+        // Self reference is not an edge
+        assertTrue(graph.dependencies("client").isEmpty());
+        assertTrue(graph.cycles().isEmpty());
+    }
+
+    @Test
+    public void testCycles() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        graph.add("a", Collections.singleton("b"));
+        graph.add("b", Collections.singleton("a"));
+        graph.add("c", Collections.singleton("a"));
+        graph.add("d", Collections.emptySet());
+
+        assertEquals(Collections.singletonList("d"), graph.order());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), graph.cycles());
+    }
+}
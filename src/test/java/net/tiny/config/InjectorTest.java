@@ -0,0 +1,59 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.jupiter.api.Test;
+
+public class InjectorTest {
+
+    @Test
+    public void testFieldInjector() throws Exception {
+        Injector injector = Injector.field(Bean.class, "name");
+        assertTrue(injector.isHandle());
+        assertSame(injector, Injector.field(Bean.class, "name"));
+        Bean bean = new Bean();
+        injector.inject(bean, "Hoge");
+        assertEquals("Hoge", bean.name);
+
+        // Field of super class
+        injector = Injector.field(Bean.class, "id");
+        injector.inject(bean, 10L);
+        assertEquals(10L, bean.id);
+        // Widening conversion by reflection
+        injector.inject(bean, 20);
+        assertEquals(20L, bean.id);
+        assertThrows(IllegalArgumentException.class, () -> Injector.field(Bean.class, "id").inject(bean, "x"));
+        assertThrows(NoSuchFieldException.class, () -> Injector.field(Bean.class, "none"));
+    }
+
+    @Test
+    public void testSetterInjector() throws Exception {
+        Injector injector = Injector.of(Bean.class.getMethod("setValue", int.class));
+        assertTrue(injector.isHandle());
+        Bean bean = new Bean();
+        injector.inject(bean, 3);
+        assertEquals(6, bean.value);
+        InvocationTargetException ex = assertThrows(InvocationTargetException.class, () -> injector.inject(bean, -1));
+        assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+
+    static class Base {
+        long id;
+    }
+
+    static class Bean extends Base {
+        private String name;
+        private int value;
+
+        public void setValue(int value) {
+            if (value < 0)
+                throw new IllegalStateException("negative");
+            this.value = value * 2;
+        }
+    }
+}
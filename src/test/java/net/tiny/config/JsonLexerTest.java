@@ -0,0 +1,125 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonLexerTest {
+
+    @Test
+    public void testTokens() throws Exception {
+        JsonLexer lexer = new JsonLexer("{\"foo\": [1, -2.5e3, true, 'bar'], // comment\n /* block */ baz : null}");
+        assertEquals('{', lexer.next());
+        assertEquals(JsonLexer.STRING, lexer.next());
+        assertEquals("foo", lexer.string());
+        assertEquals(':', lexer.next());
+        assertEquals('[', lexer.next());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(1d, lexer.number());
+        assertEquals(',', lexer.next());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(-2500d, lexer.number());
+        assertEquals(',', lexer.next());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertTrue(lexer.matchesIgnoreCase("TRUE"));
+        assertEquals(',', lexer.next());
+        assertEquals(JsonLexer.STRING, lexer.next());
+        assertEquals("bar", lexer.string());
+        assertEquals(']', lexer.next());
+        assertEquals(',', lexer.next());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertEquals("baz", lexer.string());
+        assertEquals(2, lexer.line());
+        lexer.pushBack();
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertEquals(':', lexer.next());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertTrue(lexer.matches("null"));
+        assertEquals('}', lexer.next());
+        assertEquals(JsonLexer.EOF, lexer.next());
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        JsonLexer lexer = new JsonLexer("0 123456789012345678 12345678901234567890 0.5 1E2 1e-2 1. -abc 12ab");
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(0d, lexer.number());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(123456789012345678d, lexer.number());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(12345678901234567890d, lexer.number());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(0.5d, lexer.number());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(100d, lexer.number());
+        assertEquals(JsonLexer.NUMBER, lexer.next());
+        assertEquals(0.01d, lexer.number());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertEquals("1.", lexer.string());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertEquals("-abc", lexer.string());
+        assertEquals(JsonLexer.WORD, lexer.next());
+        assertEquals("12ab", lexer.string());
+    }
+
+    @Test
+    public void testEscape() throws Exception {
+        JsonLexer lexer = new JsonLexer("\"a\\\"b\\\\c\\/d\\n\\t\\u3042\"");
+        assertEquals(JsonLexer.STRING, lexer.next());
+        assertEquals("a\"b\\c/d\n\t\u3042", lexer.string());
+
+        assertThrows(IOException.class, () -> new JsonLexer("\"abc").next());
+        assertThrows(IOException.class, () -> new JsonLexer("\"\\u12G4\"").next());
+    }
+
+    @Test
+    public void testKeyCache() throws Exception {
+        JsonLexer lexer = new JsonLexer("\"name\" \"name\" \"other\"");
+        lexer.next();
+        final String key = lexer.key();
+        lexer.next();
+        assertSame(key, lexer.key());
+        lexer.next();
+        assertEquals("other", lexer.key());
+    }
+
+    @Test
+    public void testLargeReader() throws Exception {
+        // Over the lexer buffer size
+        StringBuilder json = new StringBuilder("[");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) json.append(",");
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\"}");
+            text.append("abcdefghij");
+        }
+        json.append(",\"").append(text).append("\"]");
+        Reader reader = new StringReader(json.toString());
+        List<?> list = (List<?>)new JsonParser().parse(reader);
+        assertEquals(5001, list.size());
+        Map<?, ?> last = (Map<?, ?>)list.get(4999);
+        assertEquals(4999d, last.get("id"));
+        assertEquals("item-4999", last.get("name"));
+        assertEquals(text.toString(), list.get(5000));
+    }
+
+    @Test
+    public void testParseError() throws Exception {
+        JsonParser parser = new JsonParser();
+        IOException err = assertThrows(IOException.class, () -> parser.parse("{\"a\": 1 \"b\": 2}"));
+        assertEquals("Missing comma in list on 1", err.getMessage());
+        err = assertThrows(IOException.class, () -> parser.parse("[1, 2"));
+        assertEquals("Unexpected EOF.", err.getMessage());
+        err = assertThrows(IOException.class, () -> parser.parse("{\"a\" 1}"));
+        assertTrue(err.getMessage().startsWith("Expected ':'"));
+        err = assertThrows(IOException.class, () -> parser.parse("{1: 2}"));
+        assertTrue(err.getMessage().startsWith("Unexpected map name type"));
+        assertEquals(2, ((List<?>)parser.parse("[1, 2,]")).size());
+    }
+}
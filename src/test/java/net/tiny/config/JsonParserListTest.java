@@ -1,10 +1,14 @@
 package net.tiny.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
@@ -62,6 +66,28 @@ public class JsonParserListTest {
         }
     }
 
+    @Test
+    public void testStreamList() {
+        String json = "[{\"endpoint\":\"http://localhost:8080/api/v1/tc1/do\",\"channels\":[\"ch1\",\"ch2\"]},{\"endpoint\":\"http://localhost:8080/api/v1/tc2/do\",\"channels\":[\"ch2\"]},{\"endpoint\":\"LocalConsumer\",\"channels\":[\"ch3\"]}]";
+        try (Stream<TestBean> stream = JsonParser.stream(new StringReader(json), TestBean.class)) {
+            List<String> endpoints = stream
+                    .map(TestBean::getEndpoint)
+                    .collect(Collectors.toList());
+            assertEquals(Arrays.asList("http://localhost:8080/api/v1/tc1/do", "http://localhost:8080/api/v1/tc2/do", "LocalConsumer"), endpoints);
+        }
+
+        // Lazy, only the first element is parsed
+        Stream<TestBean> stream = JsonParser.stream(new StringReader("[{\"endpoint\":\"first\"}, {\"endpoint\": broken"), TestBean.class);
+        assertEquals("first", stream.findFirst().get().getEndpoint());
+
+        assertEquals(0L, JsonParser.stream(new StringReader("[]"), TestBean.class).count());
+        assertEquals(0L, JsonParser.stream(new StringReader(""), TestBean.class).count());
+        assertEquals(Arrays.asList("a", "b"),
+                JsonParser.stream(new StringReader("[\"a\", \"b\",]"), String.class).collect(Collectors.toList()));
+        assertThrows(RuntimeException.class, () -> JsonParser.stream(new StringReader("{}"), TestBean.class).count());
+        assertThrows(RuntimeException.class, () -> JsonParser.stream(new StringReader("[{\"endpoint\":\"a\"}"), TestBean.class).count());
+    }
+
     static class TestBean {
 
         private String endpoint;
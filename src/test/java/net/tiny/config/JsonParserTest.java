@@ -195,10 +195,11 @@ public class JsonParserTest {
     @Test
     public void testMarshalJavaJson() throws Exception {
 
-        assertEquals("{\"ABCDE\"}", JsonParser.marshal("ABCDE"));
-        assertEquals("{1234.5678}", JsonParser.marshal(1234.5678d));
-        assertEquals("{\"false\"}", JsonParser.marshal(Boolean.FALSE));
-        assertEquals("{\"TWO\"}", JsonParser.marshal(TestType.TWO));
+        assertEquals("\"ABCDE\"", JsonParser.marshal("ABCDE"));
+        assertEquals("\"n\\\"x\"", JsonParser.marshal("n\"x"));
+        assertEquals("1234.5678", JsonParser.marshal(1234.5678d));
+        assertEquals("\"false\"", JsonParser.marshal(Boolean.FALSE));
+        assertEquals("\"TWO\"", JsonParser.marshal(TestType.TWO));
         System.out.print(JsonParser.marshal(LocalDate.now()));
         System.out.print(JsonParser.marshal(new Timestamp(System.currentTimeMillis())));
 
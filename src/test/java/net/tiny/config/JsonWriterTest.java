@@ -0,0 +1,91 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonWriterTest {
+
+    static final String LS = "\n";
+
+    @Test
+    public void testOneline() throws Exception {
+        List<JsonParserListTest.TestBean> beans = new ArrayList<>();
+        JsonParserListTest.TestBean c1 = new JsonParserListTest.TestBean();
+        c1.setChannels(Arrays.asList("ch1", "ch2"));
+        c1.setEndpoint("http://localhost:8080/api/v1/tc1/do");
+        c1.setObserver("transient");
+        JsonParserListTest.TestBean c2 = new JsonParserListTest.TestBean();
+        c2.setEndpoint("LocalConsumer");
+        beans.add(c1);
+        beans.add(c2);
+
+        StringBuilder out = new StringBuilder();
+        JsonParser.marshal(beans, out, true);
+        assertEquals("[{\"endpoint\":\"http://localhost:8080/api/v1/tc1/do\",\"channels\":[\"ch1\",\"ch2\"]},{\"endpoint\":\"LocalConsumer\"}]",
+                out.toString());
+        assertEquals(JsonParser.marshal(beans), out.toString());
+    }
+
+    @Test
+    public void testPretty() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", "ABC");
+        map.put("cost", 1080);
+        map.put("rate", new BigDecimal("1.4"));
+        map.put("enable", Boolean.TRUE);
+        map.put("date", LocalDate.of(2016, 9, 16));
+        map.put("list", Arrays.asList(1, 2));
+        map.put("empty", new LinkedHashMap<>());
+        map.put("none", null);
+
+        StringBuilder out = new StringBuilder();
+        JsonParser.marshal(map, out, false);
+        assertEquals("{" + LS
+                + "  \"name\": \"ABC\"," + LS
+                + "  \"cost\": 1080," + LS
+                + "  \"rate\": 1.4," + LS
+                + "  \"enable\": \"true\"," + LS
+                + "  \"date\": \"2016/09/16\"," + LS
+                + "  \"list\": [1, 2]," + LS
+                + "  \"empty\": {}" + LS
+                + "}" + LS, out.toString());
+        assertEquals(JsonParser.marshal(map, false), out.toString());
+
+        Map<?, ?> parsed = JsonParser.unmarshal(out.toString(), Map.class);
+        assertEquals("ABC", parsed.get("name"));
+        assertEquals(1080d, parsed.get("cost"));
+    }
+
+    @Test
+    public void testEscape() throws Exception {
+        StringBuilder out = new StringBuilder();
+        JsonWriter.string("a\"b\\c\nd\u0001", out);
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", out.toString());
+        assertEquals("a\"b\\c\nd\u0001", new JsonParser().parse(out.toString()));
+    }
+
+    @Test
+    public void testOutputStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonParser.marshal(Arrays.asList("あ", "b"), out, true);
+        assertEquals("[\"あ\",\"b\"]", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIndent() throws Exception {
+        assertEquals("", JsonWriter.indent(0));
+        assertEquals("    ", JsonWriter.indent(2));
+        assertEquals(40, JsonWriter.indent(20).length());
+    }
+}
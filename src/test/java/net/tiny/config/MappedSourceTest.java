@@ -0,0 +1,82 @@
+package net.tiny.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+public class MappedSourceTest {
+
+    @Test
+    public void testLines() throws Exception {
+        byte[] bytes = "﻿key : value\r\n\n  名前: 値 \nlast".getBytes(StandardCharsets.UTF_8);
+        MappedSource source = new MappedSource(ByteBuffer.wrap(bytes));
+        assertTrue(source.nextLine());
+        int colon = source.indexOf(':', source.start(), source.end());
+        assertEquals("key", source.trim(source.start(), colon));
+        assertEquals("value", source.trim(colon + 1, source.end()));
+        assertTrue(source.nextLine());
+        assertEquals(source.start(), source.end());
+        assertTrue(source.nextLine());
+        colon = source.indexOf(':', source.start(), source.end());
+        assertEquals("名前", source.trim(source.start(), colon));
+        assertEquals("値", source.trim(colon + 1, source.end()));
+        assertTrue(source.isBlank(source.start(), source.start() + 2));
+        assertEquals(3, source.lineNumber());
+        assertTrue(source.nextLine());
+        assertEquals("last", source.decode(source.start(), source.end()));
+        assertFalse(source.nextLine());
+    }
+
+    @Test
+    public void testReader() throws Exception {
+        byte[] bytes = "a = 1\nb = 値\n".getBytes(StandardCharsets.UTF_8);
+        MappedSource source = new MappedSource(ByteBuffer.wrap(bytes));
+        assertTrue(source.nextLine());
+        BufferedReader reader = new BufferedReader(source.reader());
+        assertEquals("b = 値", reader.readLine());
+    }
+
+    @Test
+    public void testLoadMappedYaml() throws Exception {
+        File file = new File("src/test/resources/config/app-dev.yml");
+        Properties expected;
+        try (FileInputStream in = new FileInputStream(file)) {
+            expected = YamlLoader.load(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), null);
+        }
+        Properties properties = PropertiesLoader.load(file.toPath(), ContextHandler.Type.YAML, null);
+        assertFalse(properties.isEmpty());
+        assertEquals(expected, properties);
+    }
+
+    @Test
+    public void testLoadMappedFormats() throws Exception {
+        Path dir = Paths.get("src/test/resources/config");
+        Properties hocon = PropertiesLoader.load(dir.resolve("reference.conf"), ContextHandler.Type.HOCON, null);
+        Properties json = PropertiesLoader.load(dir.resolve("reference.json"), ContextHandler.Type.JSON, null);
+        Properties props = PropertiesLoader.load(dir.resolve("reference.properties"), ContextHandler.Type.PROPERTIES, null);
+        assertEquals("http://www.abc.com/", hocon.getProperty("APP.sample.url"));
+        assertEquals(hocon.getProperty("APP.sample.url"), json.getProperty("APP.sample.url"));
+        assertFalse(props.isEmpty());
+
+        Path temp = Files.createTempFile("mapped", ".yml");
+        try {
+            Files.write(temp, "app:\n  name: 名前 # comment\n  list:\n    - a\n    - b\n".getBytes(StandardCharsets.UTF_8));
+            Properties yaml = PropertiesLoader.load(temp, ContextHandler.Type.YAML, null);
+            assertEquals("名前", yaml.getProperty("app.name"));
+            assertEquals("\"a\",\"b\"", yaml.getProperty("app.list"));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
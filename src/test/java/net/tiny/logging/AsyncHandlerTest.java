@@ -0,0 +1,230 @@
+package net.tiny.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public class AsyncHandlerTest {
+
+    @Test
+    public void testRingBuffer() throws Exception {
+        AsyncHandler.RingBuffer buffer = new AsyncHandler.RingBuffer(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(record(Level.INFO, "m" + i)));
+        }
+        assertFalse(buffer.offer(record(Level.INFO, "full")));
+        assertEquals("m0", buffer.poll().getMessage());
+        assertTrue(buffer.offer(record(Level.INFO, "m4")));
+        for (int i = 1; i < 5; i++) {
+            assertEquals("m" + i, buffer.poll().getMessage());
+        }
+        assertTrue(buffer.isEmpty());
+        assertEquals(5L, buffer.published());
+        assertEquals(5L, buffer.consumed());
+    }
+
+    @Test
+    public void testConcurrentPublish() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Properties handlers = new Properties();
+        handlers.setProperty("capacity", "64");
+        handlers.setProperty("batch", "16");
+        AsyncHandler handler = new AsyncHandler(handlers, out, err);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        handler.publish(record(i % 10 == 0 ? Level.WARNING : Level.INFO, "t" + thread + "-" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            handler.flush();
+            String[] lines = out.toString().split("\n");
+            assertEquals(3600, lines.length);
+            assertEquals(400, err.toString().split("\n").length);
+            // The records of a thread are kept in order
+            int last = -1;
+            for (String line : lines) {
+                int pos = line.indexOf("\tt0-");
+                if (pos > 0) {
+                    int i = Integer.parseInt(line.substring(pos + 4));
+                    assertTrue(i > last);
+                    last = i;
+                }
+            }
+            assertEquals(999, last);
+            assertEquals(0L, handler.getDropped());
+        } finally {
+            executor.shutdown();
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentFlush() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Properties handlers = new Properties();
+        handlers.setProperty("capacity", "64");
+        // Flushed only by the requests
+        handlers.setProperty("flush", "interval");
+        handlers.setProperty("interval", "60000");
+        AsyncHandler handler = new AsyncHandler(handlers, out, new ByteArrayOutputStream());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        handler.publish(record(Level.INFO, "t" + thread + "-" + i));
+                        if (i % 50 == 49) {
+                            handler.flush();
+                            // The records of this thread are written before the return
+                            assertTrue(out.toString().contains("\tt" + thread + "-" + i + "\n"));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            for (int i = 0; i < 100; i++) {
+                handler.publish(record(Level.INFO, "last-" + i));
+            }
+            // All claimed records are written before stopping
+            handler.close();
+            assertEquals(2100, out.toString().split("\n").length);
+            assertTrue(out.toString().endsWith("last-99\n"));
+        } finally {
+            executor.shutdown();
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Properties handlers = new Properties();
+        handlers.setProperty("capacity", "4");
+        handlers.setProperty("flush", "record");
+        handlers.setProperty("overflow", "drop-below-level");
+        AsyncHandler handler = new AsyncHandler(handlers, new BlockingStream(out, latch, entered), err);
+        try {
+            // The drainer is blocked on the first record, the buffer is full after the next 4 records
+            handler.publish(record(Level.INFO, "info-0"));
+            assertTrue(entered.await(5L, TimeUnit.SECONDS));
+            for (int i = 1; i < 10; i++) {
+                handler.publish(record(Level.INFO, "info-" + i));
+            }
+            assertEquals(5L, handler.getDropped());
+
+            // The warning is not dropped, it waits for a free slot
+            Thread warning = new Thread(() -> handler.publish(record(Level.WARNING, "warning")));
+            warning.start();
+            warning.join(200L);
+            assertTrue(warning.isAlive());
+            latch.countDown();
+            warning.join(5000L);
+            assertFalse(warning.isAlive());
+
+            handler.flush();
+            assertTrue(err.toString().contains("warning"));
+            assertTrue(err.toString().contains("log records were dropped on overflow."));
+            assertEquals(5, out.toString().split("\n").length);
+        } finally {
+            latch.countDown();
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testSetupAsyncHandler() throws Exception {
+        Properties levels = new Properties();
+        levels.setProperty("net.tiny", "FINE");
+        Properties handlers = new Properties();
+        handlers.setProperty("output", "async");
+        handlers.setProperty("level", "INFO");
+        handlers.setProperty("flush", "interval");
+        handlers.setProperty("interval", "500");
+        LevelableHandler.setupLogger(levels, handlers);
+        try {
+            Handler[] roots = Logger.getLogger("").getHandlers();
+            assertEquals(1, roots.length);
+            assertTrue(roots[0] instanceof AsyncHandler);
+            assertEquals(Level.INFO, roots[0].getLevel());
+            Logger.getLogger(AsyncHandlerTest.class.getName()).info("[INFO] Async message");
+            roots[0].flush();
+        } finally {
+            LogManager.getLogManager().reset();
+        }
+    }
+
+    static LogRecord record(Level level, String message) {
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(AsyncHandlerTest.class.getName());
+        return record;
+    }
+
+    static class BlockingStream extends OutputStream {
+        private final OutputStream out;
+        private final CountDownLatch latch;
+        private final CountDownLatch entered;
+
+        BlockingStream(OutputStream out, CountDownLatch latch, CountDownLatch entered) {
+            this.out = out;
+            this.latch = latch;
+            this.entered = entered;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            await();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            await();
+            out.write(b, off, len);
+        }
+
+        private void await() throws IOException {
+            entered.countDown();
+            try {
+                latch.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+}
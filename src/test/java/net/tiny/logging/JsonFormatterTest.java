@@ -0,0 +1,104 @@
+package net.tiny.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import net.tiny.config.JsonParser;
+
+public class JsonFormatterTest {
+
+    @Test
+    public void testFormat() throws Exception {
+        JsonFormatter formatter = new JsonFormatter();
+        LogRecord record = new LogRecord(Level.INFO, "Hello {0}");
+        record.setParameters(new Object[] {"world"});
+        record.setLoggerName("net.tiny.Sample");
+        record.setSourceClassName("net.tiny.Sample");
+        record.setSourceMethodName("call");
+        record.setMillis(1554346187042L);
+        String expected = "{\"time\":\"2019-04-04T02:49:47.042Z\",\"level\":\"INFO\",\"thread\":" + record.getThreadID()
+                + ",\"logger\":\"net.tiny.Sample\",\"class\":\"net.tiny.Sample\",\"method\":\"call\",\"message\":\"Hello world\"}\n";
+        assertEquals(expected, formatter.format(record));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatter.write(record, out);
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEscape() throws Exception {
+        JsonFormatter formatter = new JsonFormatter();
+        String message = "\"名前\"\t\\ \u0001 😀\r\n";
+        LogRecord record = new LogRecord(Level.SEVERE, message);
+        record.setLoggerName("net.tiny.Sample");
+        record.setThrown(new IllegalStateException("error \"quoted\""));
+        String line = formatter.format(record);
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.split("\n").length);
+        assertTrue(line.contains("\"message\":\"\\\"名前\\\"\\t\\\\ \\u0001 😀\\r\\n\""));
+        assertTrue(line.contains("\"class\":null"));
+
+        Map<String, Object> json = JsonParser.unmarshal(line, Map.class);
+        assertEquals("ERROR", json.get("level"));
+        assertEquals("net.tiny.Sample", json.get("logger"));
+        assertEquals("java.lang.IllegalStateException: error \"quoted\"", json.get("thrown"));
+        List<String> stack = (List<String>) json.get("stack");
+        assertEquals(record.getThrown().getStackTrace().length, stack.size());
+        assertTrue(stack.get(0).startsWith("net.tiny.logging.JsonFormatterTest.testEscape(JsonFormatterTest.java:"));
+    }
+
+    @Test
+    public void testLong() throws Exception {
+        JsonFormatter.ByteBuilder buffer = new JsonFormatter.ByteBuilder(4);
+        buffer.appendLong(0L);
+        buffer.append((byte) ' ');
+        buffer.appendLong(-12345L);
+        buffer.append((byte) ' ');
+        buffer.appendLong(Long.MIN_VALUE);
+        buffer.append((byte) ' ');
+        buffer.appendLong(Long.MAX_VALUE);
+        assertEquals("0 -12345 " + Long.MIN_VALUE + " " + Long.MAX_VALUE,
+                new String(buffer.bytes, 0, buffer.length, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testSetupJsonFormatter() throws Exception {
+        Properties levels = new Properties();
+        Properties handlers = new Properties();
+        handlers.setProperty("output", "async");
+        handlers.setProperty("formatter", "json");
+        LevelableHandler.setupLogger(levels, handlers);
+        try {
+            Handler[] roots = Logger.getLogger("").getHandlers();
+            assertTrue(roots[0].getFormatter() instanceof JsonFormatter);
+            Logger.getLogger(JsonFormatterTest.class.getName()).info("[INFO] Json message");
+            roots[0].flush();
+        } finally {
+            LogManager.getLogManager().reset();
+        }
+
+        handlers.remove("output");
+        LevelableHandler.setupLogger(levels, handlers);
+        try {
+            Handler[] roots = Logger.getLogger("").getHandlers();
+            assertTrue(roots[0] instanceof LevelableHandler);
+            assertTrue(roots[0].getFormatter() instanceof JsonFormatter);
+            Logger.getLogger(JsonFormatterTest.class.getName()).warning("[WARN] Json message");
+        } finally {
+            LogManager.getLogManager().reset();
+        }
+    }
+}
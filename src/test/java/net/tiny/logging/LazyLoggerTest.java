@@ -0,0 +1,91 @@
+package net.tiny.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public class LazyLoggerTest {
+
+    @Test
+    public void testLazyFormat() throws Exception {
+        final String name = LazyLoggerTest.class.getName() + ".lazy";
+        final Logger logger = Logger.getLogger(name);
+        final List<LogRecord> records = new ArrayList<>();
+        final Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+            @Override
+            public void flush() {}
+            @Override
+            public void close() {}
+        };
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        logger.setLevel(Level.INFO);
+        try {
+            final AtomicInteger calls = new AtomicInteger();
+            final Object value = new Object() {
+                @Override
+                public String toString() {
+                    calls.incrementAndGet();
+                    return "value";
+                }
+            };
+            LazyLogger lazy = LazyLogger.getLogger(name);
+            assertEquals(name, lazy.getName());
+            assertFalse(lazy.isLoggable(Level.FINE));
+
+            // Not formatted below the level
+            lazy.log(Level.FINE, "[BOOT] Cached '%s' = '%s'", "key", value);
+            lazy.fine("[BOOT] Cached '%s'", value);
+            lazy.log(Level.FINE, () -> value.toString());
+            assertEquals(0, calls.get());
+            assertTrue(records.isEmpty());
+
+            lazy.log(Level.INFO, "[BOOT] Cached '%s' = '%s'", "key", value);
+            assertEquals(1, calls.get());
+            assertEquals(1, records.size());
+            LogRecord record = records.get(0);
+            assertEquals("[BOOT] Cached 'key' = 'value'", record.getMessage());
+            assertEquals(Level.INFO, record.getLevel());
+            // The caller is not the facade
+            assertEquals(LazyLoggerTest.class.getName(), record.getSourceClassName());
+            assertEquals("testLazyFormat", record.getSourceMethodName());
+
+            // A message without arguments is not a template
+            lazy.warning("100% done");
+            assertEquals("100% done", records.get(1).getMessage());
+
+            IllegalStateException error = new IllegalStateException("error");
+            lazy.log(Level.SEVERE, error, "Failed - %s", error.getMessage());
+            assertEquals("Failed - error", records.get(2).getMessage());
+            assertSame(error, records.get(2).getThrown());
+            lazy.log(Level.SEVERE, error, () -> "Supplied");
+            assertEquals("Supplied", records.get(3).getMessage());
+
+            // The fixed arity overloads
+            lazy.info("one %s", value);
+            lazy.warning("two %s %d", value, 2);
+            lazy.severe("three %s %s %s", 1, 2, 3);
+            assertEquals("one value", records.get(4).getMessage());
+            assertEquals("two value 2", records.get(5).getMessage());
+            assertEquals(Level.WARNING, records.get(5).getLevel());
+            assertEquals("testLazyFormat", records.get(5).getSourceMethodName());
+            assertEquals("three 1 2 3", records.get(6).getMessage());
+        } finally {
+            logger.removeHandler(handler);
+            logger.setUseParentHandlers(true);
+            logger.setLevel(null);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package net.tiny.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class MappedFileHandlerTest {
+
+    @Test
+    public void testConcurrentAppend() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        try {
+            Properties handlers = new Properties();
+            handlers.setProperty("pattern", dir.toString() + "/app%g.log");
+            // Some records are across the regions
+            handlers.setProperty("region", "1000");
+            MappedFileHandler handler = new MappedFileHandler(handlers);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        handler.publish(record(Level.INFO, "t" + thread + "-" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            handler.publish(record(Level.INFO, String.join("", java.util.Collections.nCopies(300, "long-"))));
+            handler.flush();
+            handler.close();
+            handler.publish(record(Level.INFO, "closed"));
+
+            Path file = dir.resolve("app0.log");
+            byte[] bytes = Files.readAllBytes(file);
+            // The unused part of the last region is cut
+            assertEquals('\n', bytes[bytes.length - 1]);
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(2001, lines.size());
+            assertTrue(lines.get(2000).endsWith("long-"));
+            assertEquals(500L, lines.stream().filter(l -> l.contains("\tt3-")).count());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testRolling() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        try {
+            Files.write(dir.resolve("app.log.0"), "old\n".getBytes(StandardCharsets.UTF_8));
+            Properties handlers = new Properties();
+            handlers.setProperty("pattern", "'" + dir.toString() + "/app.log'");
+            handlers.setProperty("limit", "1000");
+            handlers.setProperty("count", "3");
+            handlers.setProperty("rotate", "daily");
+            MappedFileHandler handler = new MappedFileHandler(handlers);
+            handler.setFormatter(new JsonFormatter());
+            assertEquals(dir.resolve("app.log.2"), handler.generation(2));
+            // Not appended, the old file was shifted
+            assertEquals("old", Files.readAllLines(dir.resolve("app.log.1")).get(0));
+
+            for (int i = 0; i < 20; i++) {
+                handler.publish(record(Level.INFO, "size-" + i));
+            }
+            // The next day
+            LogRecord tomorrow = record(Level.INFO, "tomorrow");
+            tomorrow.setMillis(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1L));
+            handler.publish(tomorrow);
+            handler.close();
+
+            assertFalse(Files.exists(dir.resolve("app.log.3")));
+            List<String> last = Files.readAllLines(dir.resolve("app.log.0"));
+            assertEquals(1, last.size());
+            assertTrue(last.get(0).contains("\"message\":\"tomorrow\""));
+            for (int i = 1; i < 3; i++) {
+                Path file = dir.resolve("app.log." + i);
+                assertTrue(Files.size(file) <= 1000L);
+                for (String line : Files.readAllLines(file)) {
+                    assertTrue(line.startsWith("{\"time\":") && line.endsWith("}"));
+                }
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        try {
+            Properties handlers = new Properties();
+            handlers.setProperty("pattern", dir.toString() + "/app.log");
+            handlers.setProperty("append", "true");
+            for (int i = 0; i < 2; i++) {
+                MappedFileHandler handler = new MappedFileHandler(handlers);
+                handler.publish(record(Level.INFO, "run-" + i));
+                handler.close();
+            }
+            List<String> lines = Files.readAllLines(dir.resolve("app.log"));
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(1).endsWith("run-1"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testRegionCutOnClose() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        try {
+            Properties handlers = new Properties();
+            handlers.setProperty("pattern", dir.toString() + "/app.log");
+            handlers.setProperty("region", "4096");
+            handlers.setProperty("interval", "600000");
+            MappedFileHandler handler = new MappedFileHandler(handlers);
+            Path file = dir.resolve("app.log");
+            handler.publish(record(Level.INFO, "first"));
+            // Grown by the mapped region, kept by the commit
+            assertEquals(4096L, Files.size(file));
+            handler.flush();
+            assertEquals(4096L, Files.size(file));
+            assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("first\n"));
+
+            // Over some regions, only the last one is mapped
+            for (int i = 0; i < 200; i++) {
+                handler.publish(record(Level.INFO, "next-" + i));
+            }
+            handler.flush();
+            assertTrue(Files.size(file) > 4096L);
+            assertTrue(mappings(file) <= 1L);
+
+            handler.close();
+            assertEquals(0L, mappings(file));
+            byte[] bytes = Files.readAllBytes(file);
+            assertEquals('\n', bytes[bytes.length - 1]);
+            assertEquals(-1, new String(bytes, StandardCharsets.UTF_8).indexOf('\0'));
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(201, lines.size());
+            assertTrue(lines.get(200).endsWith("next-199"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * @return The number of the mappings of the file, 0 if not on Linux
+     */
+    static long mappings(Path file) throws IOException {
+        Path maps = Paths.get("/proc/self/maps");
+        if (!Files.exists(maps)) {
+            return 0L;
+        }
+        String name = file.toRealPath().toString();
+        return Files.readAllLines(maps).stream().filter(l -> l.endsWith(name)).count();
+    }
+
+    @Test
+    public void testKilledProcess() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        MappedFileHandler killed = null;
+        try {
+            Properties handlers = new Properties();
+            handlers.setProperty("pattern", dir.toString() + "/app.log");
+            handlers.setProperty("region", "4096");
+            handlers.setProperty("interval", "600000");
+            handlers.setProperty("append", "true");
+            // Not flushed nor closed, as a killed process
+            killed = new MappedFileHandler(handlers);
+            for (int i = 0; i < 3; i++) {
+                killed.publish(record(Level.INFO, "killed-" + i));
+            }
+            Path file = dir.resolve("app.log");
+            assertEquals(4096L, Files.size(file));
+
+            MappedFileHandler handler = new MappedFileHandler(handlers);
+            handler.publish(record(Level.INFO, "restarted"));
+            handler.close();
+            byte[] bytes = Files.readAllBytes(file);
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            assertEquals(-1, text.indexOf('\0'));
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(4, lines.size());
+            assertTrue(lines.get(2).endsWith("killed-2"));
+            assertTrue(lines.get(3).endsWith("restarted"));
+
+            // Only the NUL padding is cut
+            Path padded = dir.resolve("padded.log");
+            byte[] content = new byte[10000];
+            content[0] = 'a';
+            content[1] = '\n';
+            Files.write(padded, content);
+            assertEquals(2L, MappedFileHandler.trim(padded));
+            assertEquals(2L, Files.size(padded));
+            Files.write(padded, new byte[9000]);
+            assertEquals(0L, MappedFileHandler.trim(padded));
+            assertEquals(0L, MappedFileHandler.trim(dir.resolve("none.log")));
+        } finally {
+            if (null != killed) {
+                killed.close();
+            }
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testSetupMappedHandler() throws Exception {
+        Path dir = Files.createTempDirectory("mapped");
+        try {
+            Properties levels = new Properties();
+            Properties handlers = new Properties();
+            handlers.setProperty("output", "mapped");
+            handlers.setProperty("pattern", dir.toString() + "/setup%u.log");
+            handlers.setProperty("level", "INFO");
+            LevelableHandler.setupLogger(levels, handlers);
+            try {
+                Handler[] roots = Logger.getLogger("").getHandlers();
+                assertTrue(roots[0] instanceof MappedFileHandler);
+                Logger.getLogger(MappedFileHandlerTest.class.getName()).info("[INFO] Mapped message");
+            } finally {
+                LogManager.getLogManager().reset();
+            }
+            List<String> lines = Files.readAllLines(dir.resolve("setup0.log"));
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).contains("MappedFileHandlerTest.testSetupMappedHandler"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    static LogRecord record(Level level, String message) {
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(MappedFileHandlerTest.class.getName());
+        return record;
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Object file : files.toArray()) {
+                Files.deleteIfExists((Path) file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
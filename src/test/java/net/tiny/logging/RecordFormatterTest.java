@@ -1,6 +1,14 @@
 package net.tiny.logging;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
 
 import org.junit.jupiter.api.Test;
 
@@ -16,4 +24,61 @@ public class RecordFormatterTest {
         assertEquals("o.j.j.e.c.EnumConfigurationParameterConverter", formatter.shortClassName(45, className));
         assertEquals("o.j.j.e.c.E", formatter.shortClassName(40, className));
     }
+
+    @Test
+    public void testFormat() throws Exception {
+        RecordFormatter formatter = new RecordFormatter();
+        LogRecord record = new LogRecord(Level.FINE, "Hello {0}, {1}");
+        record.setParameters(new Object[] {"world", 1});
+        record.setSourceClassName("org.junit.jupiter.engine.config.EnumConfigurationParameterConverter");
+        record.setSourceMethodName("convert");
+        record.setMillis(1554346187042L);
+        String expected = String.format("%tF %<tT.%<tL", 1554346187042L)
+                + "\tDEBUG\to.j.j.e.c.E.convert [" + record.getThreadID() + "]\tHello world, 1\n";
+        assertEquals(expected, formatter.format(record));
+
+        // The cached second and the next one
+        record.setMillis(1554346187999L);
+        assertTrue(formatter.format(record).startsWith(String.format("%tF %<tT.%<tL\t", 1554346187999L)));
+        record.setMillis(1554346188005L);
+        assertTrue(formatter.format(record).startsWith(String.format("%tF %<tT.%<tL\t", 1554346188005L)));
+
+        record = new LogRecord(Level.WARNING, "No {parameter}");
+        record.setParameters(new Object[] {"x"});
+        record.setLoggerName("net.tiny.Sample");
+        record.setThrown(new IllegalStateException("error"));
+        String message = formatter.format(record);
+        assertTrue(message.contains("\tWARN\tnet.tiny.Sample.- ["));
+        assertTrue(message.contains("\tNo {parameter}\njava.lang.IllegalStateException: error\n\tnet.tiny.logging.RecordFormatterTest"));
+    }
+
+    @Test
+    public void testConcurrentFormat() throws Exception {
+        RecordFormatter formatter = new RecordFormatter();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        LogRecord record = new LogRecord(Level.INFO, "Message {0}");
+                        record.setParameters(new Object[] {i});
+                        record.setLoggerName("net.tiny.logging.Logger" + (i % 10));
+                        record.setMillis(1554346187000L + i * 7L);
+                        String expected = String.format("%tF %<tT.%<tL\tINFO\tnet.tiny.logging.Logger%d.- [%d]\tMessage %d\n",
+                                record.getMillis(), i % 10, record.getThreadID(), i);
+                        if (!expected.equals(formatter.format(record))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }